@@ -0,0 +1,38 @@
+package dev.jleenksystem.todolist.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.mapper.TodoMapper;
+import dev.jleenksystem.todolist.model.Todo;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TodoMapperBenchmark {
+    private final Todo todo = new Todo(42L, "Write the benchmarks", true, 3L);
+    private final TodoDto dto = TodoMapper.toDto(todo);
+
+    @Benchmark
+    public TodoDto toDto() {
+        return TodoMapper.toDto(todo);
+    }
+
+    @Benchmark
+    public Todo toEntity() {
+        return TodoMapper.toEntity(dto);
+    }
+}
@@ -0,0 +1,117 @@
+package dev.jleenksystem.todolist.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import dev.jleenksystem.todolist.TodoListApiApplication;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+
+/**
+ * {@link TodoRepository} against a fresh SQLite file per trial, wired by the
+ * application context so pools, pragmas and schema match production. The
+ * lookup cache is off, {@code findById} always reaches SQLite.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TodoRepositoryBenchmark {
+    private static final int SEED_CHUNK = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    // 0 prepares every statement on each call, as sqlite-jdbc does on its own
+    @Param({"0", "64"})
+    int statementCacheSize;
+
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private TodoRepository repository;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("todo-bench");
+        SpringApplication application = new SpringApplication(TodoListApiApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        context = application.run(
+                "--spring.datasource.url=jdbc:sqlite:" + directory.resolve("todos.db"),
+                "--todos.list.max-size=" + rows,
+                "--todos.cache.max-size=0",
+                "--todos.sqlite.statement-cache-size=" + statementCacheSize,
+                "--logging.level.root=WARN");
+        repository = context.getBean(TodoRepository.class);
+
+        for (int seeded = 0; seeded < rows; seeded += SEED_CHUNK) {
+            List<Todo> chunk = new ArrayList<>();
+            for (int i = seeded; i < Math.min(rows, seeded + SEED_CHUNK); i++) {
+                chunk.add(new Todo(null, "Todo " + i, i % 2 == 0));
+            }
+            repository.saveAll(chunk);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public List<Todo> findAll() {
+        return repository.findAll();
+    }
+
+    @Benchmark
+    public Object findById() {
+        return repository.findById(ThreadLocalRandom.current().nextLong(1, rows + 1));
+    }
+
+    // Every seeded description contains "todo", so this intersects the largest posting list with a single row
+    @Benchmark
+    public List<Todo> search() {
+        return repository.search("todo " + ThreadLocalRandom.current().nextInt(rows), 10, 0);
+    }
+
+    // A prefix matching about one row in ninety, ranked and cut to one page
+    @Benchmark
+    public List<Todo> searchPrefix() {
+        return repository.search("12*", 10, 0);
+    }
+
+    // Every call adds a row, so the table grows by the invocation count over the trial
+    @Benchmark
+    public Todo save() {
+        return repository.save(new Todo(null, "Benchmark todo", false));
+    }
+}
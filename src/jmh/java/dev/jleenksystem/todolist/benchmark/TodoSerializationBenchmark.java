@@ -0,0 +1,93 @@
+package dev.jleenksystem.todolist.benchmark;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.mapper.TodoDtoSerializer;
+import dev.jleenksystem.todolist.mapper.TodoMapper;
+import dev.jleenksystem.todolist.model.Todo;
+
+/**
+ * Jackson serialization of a {@code List<TodoDto>}, as written for {@code GET /todos},
+ * in each format the API negotiates. Output goes to a null stream, so only encoding is measured.
+ * {@code writeListBeanSerializer} uses Jackson's bean serializer instead of {@link TodoDtoSerializer},
+ * run with {@code -prof gc} to compare allocations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TodoSerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int rows;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private ObjectMapper mapper;
+    private ObjectMapper beanMapper;
+    private List<TodoDto> todos;
+    private List<Todo> models;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Configured the same way Spring Boot configures the MVC converters' mappers
+        mapper = builder().serializerByType(TodoDto.class, new TodoDtoSerializer()).build();
+        beanMapper = builder().build();
+
+        models = new ArrayList<>(rows);
+        for (int i = 1; i <= rows; i++) {
+            models.add(new Todo((long) i, "Todo " + i, i % 2 == 0));
+        }
+        todos = TodoMapper.toDtoList(models);
+    }
+
+    private Jackson2ObjectMapperBuilder builder() {
+        return switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory());
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory());
+            default -> Jackson2ObjectMapperBuilder.json();
+        };
+    }
+
+    @Benchmark
+    public void writeList() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), todos);
+    }
+
+    // Rows to response body, as TodoService and the controller do it
+    @Benchmark
+    public void mapAndWriteList() throws IOException {
+        mapper.writeValue(OutputStream.nullOutputStream(), TodoMapper.toDtoList(models));
+    }
+
+    @Benchmark
+    public void writeListBeanSerializer() throws IOException {
+        beanMapper.writeValue(OutputStream.nullOutputStream(), todos);
+    }
+}
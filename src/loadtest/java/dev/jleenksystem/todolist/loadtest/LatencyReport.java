@@ -0,0 +1,133 @@
+package dev.jleenksystem.todolist.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Per-operation latency histograms, in microseconds. Latency is measured from
+ * the time a request was scheduled to start, not from when it was sent, so time
+ * spent queued behind a slow server is counted.
+ */
+class LatencyReport {
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean ok) {
+        histograms.get(operation).recordValue(Math.max(1, latencyNanos / 1_000));
+        if (!ok) {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    // Drops everything recorded during the warmup
+    void reset() {
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(count -> count.set(0));
+    }
+
+    Result result(LoadOptions options, Duration elapsed) {
+        List<Row> rows = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        long allErrors = 0;
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            if (histogram.getTotalCount() > 0) {
+                rows.add(Row.of(operation.name(), histogram, errors.get(operation).get(), elapsed));
+                all.add(histogram);
+                allErrors += errors.get(operation).get();
+            }
+        }
+        rows.add(Row.of("ALL", all, allErrors, elapsed));
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", options.rate());
+        settings.put("concurrency", options.concurrency());
+        settings.put("duration", options.duration().toString());
+        settings.put("mix", options.mix().toString());
+        settings.put("appArgs", options.appArgs());
+        return new Result(settings, rows);
+    }
+
+    record Row(String operation, long count, long errors, double throughput,
+               double p50, double p90, double p99, double p999, double max) {
+
+        static Row of(String operation, Histogram histogram, long errors, Duration elapsed) {
+            return new Row(operation, histogram.getTotalCount(), errors,
+                    histogram.getTotalCount() / (elapsed.toNanos() / 1e9),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1_000.0;
+        }
+    }
+
+    record Result(Map<String, Object> settings, List<Row> rows) {
+
+        void print(PrintStream out) {
+            out.println("Settings: " + settings);
+            out.printf("%-8s %10s %8s %10s %10s %10s %10s %10s %10s%n",
+                    "op", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p999 ms", "max ms");
+            for (Row row : rows) {
+                out.printf("%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f%n", row.operation(), row.count(),
+                        row.errors(), row.throughput(), row.p50(), row.p90(), row.p99(), row.p999(), row.max());
+            }
+        }
+
+        // Positive percentages are slower latencies or higher throughput than the baseline
+        void printComparison(Result baseline, PrintStream out) {
+            out.println("Against baseline " + baseline.settings());
+            out.printf("%-8s %18s %18s %18s %18s%n", "op", "req/s", "p50 ms", "p99 ms", "p999 ms");
+            for (Row row : rows) {
+                baseline.rows().stream().filter(base -> base.operation().equals(row.operation())).findFirst()
+                        .ifPresent(base -> out.printf("%-8s %18s %18s %18s %18s%n", row.operation(),
+                                change(base.throughput(), row.throughput()), change(base.p50(), row.p50()),
+                                change(base.p99(), row.p99()), change(base.p999(), row.p999())));
+            }
+        }
+
+        private static String change(double before, double after) {
+            double percent = before == 0 ? 0 : (after - before) / before * 100;
+            return String.format("%.2f %+.1f%%", after, percent);
+        }
+
+        void save(Path path) throws IOException {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            JSON.writeValue(path.toFile(), this);
+        }
+
+        static Result load(Path path) throws IOException {
+            return JSON.readValue(path.toFile(), Result.class);
+        }
+    }
+}
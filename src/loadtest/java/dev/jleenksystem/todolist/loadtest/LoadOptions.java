@@ -0,0 +1,103 @@
+package dev.jleenksystem.todolist.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Command line options of {@link LoadTest}, given as {@code --name=value}.
+ */
+record LoadOptions(
+        String url,
+        int rate,
+        Duration duration,
+        Duration warmup,
+        int concurrency,
+        int seed,
+        Map<Operation, Integer> mix,
+        Path jar,
+        List<String> appArgs,
+        Path save,
+        Path compare) {
+
+    static final String USAGE = """
+            Options (all optional, --help prints this):
+              --url=http://localhost:8080   server under test, ignored with --jar
+              --rate=500                    requests started per second, independent of response times
+              --duration=60s                measured run length
+              --warmup=10s                  run length before measuring starts
+              --concurrency=256             requests in flight at most, later ones queue and their wait counts as latency
+              --seed=1000                   todos created up front for GET and PATCH
+              --mix=get=60,list=10,post=15,patch=10,delete=5
+              --jar=target/todo-list-api-0.0.1-SNAPSHOT.jar   start this jar on a fresh database and stop it afterwards
+              --app-args="--spring.threads.virtual.enabled=true"   extra arguments for the started jar
+              --save=target/loadtest/baseline.json   write the results as a baseline
+              --compare=target/loadtest/baseline.json   print the change against a saved baseline
+            """;
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (arg.equals("--help")) {
+                throw new IllegalArgumentException("Usage: LoadTest [options]");
+            }
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Unrecognised argument: " + arg);
+            }
+            int split = arg.indexOf('=');
+            values.put(arg.substring(2, split), arg.substring(split + 1));
+        }
+        LoadOptions options = new LoadOptions(
+                values.getOrDefault("url", "http://localhost:8080"),
+                Integer.parseInt(values.getOrDefault("rate", "500")),
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("concurrency", "256")),
+                Integer.parseInt(values.getOrDefault("seed", "1000")),
+                mix(values.getOrDefault("mix", "get=60,list=10,post=15,patch=10,delete=5")),
+                values.containsKey("jar") ? Path.of(values.get("jar")) : null,
+                values.containsKey("app-args") ? List.of(values.get("app-args").trim().split("\\s+")) : List.of(),
+                values.containsKey("save") ? Path.of(values.get("save")) : null,
+                values.containsKey("compare") ? Path.of(values.get("compare")) : null);
+        if (options.rate <= 0 || options.concurrency <= 0 || options.seed <= 0) {
+            throw new IllegalArgumentException("rate, concurrency and seed must be positive");
+        }
+        return options;
+    }
+
+    // Plain seconds or milliseconds, e.g. 30s or 500ms
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        return Duration.ofSeconds(Long.parseLong(value.endsWith("s") ? value.substring(0, value.length() - 1) : value));
+    }
+
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.split("=");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(weight[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("The mix needs at least one positive weight");
+        }
+        return mix;
+    }
+
+    // Expands the weights into a table that a uniform random index picks from
+    Operation[] schedule() {
+        List<Operation> table = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                table.add(operation);
+            }
+        });
+        return table.toArray(Operation[]::new);
+    }
+}
@@ -0,0 +1,240 @@
+package dev.jleenksystem.todolist.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Open-loop HTTP load generator for the todo API. Requests are started at a
+ * fixed rate whatever the server's response times, so a slow server shows up as
+ * higher latency instead of fewer requests (no coordinated omission).
+ *
+ * <p>Run with {@code ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="..."},
+ * see {@link LoadOptions#USAGE} for the options.
+ */
+public class LoadTest {
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final int SEED_BATCH = 1_000;
+    private static final int PAGE_SIZE = 50;
+
+    private final LoadOptions options;
+    private final String baseUrl;
+    private final HttpClient client;
+    private final Semaphore inFlight;
+    private final LatencyReport report = new LatencyReport();
+    private final Operation[] schedule;
+    // Only todos created during the run are deleted, so GET and PATCH on seeded ids never miss
+    private final Queue<Long> created = new ConcurrentLinkedQueue<>();
+    private long[] seeded;
+
+    LoadTest(LoadOptions options, String baseUrl) {
+        this.options = options;
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        this.inFlight = new Semaphore(options.concurrency());
+        this.schedule = options.schedule();
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options;
+        try {
+            options = LoadOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        Process app = null;
+        String baseUrl = options.url();
+        if (options.jar() != null) {
+            int port = freePort();
+            app = startApp(options, port);
+            baseUrl = "http://localhost:" + port;
+        }
+        try {
+            LatencyReport.Result result = new LoadTest(options, baseUrl).run();
+            result.print(System.out);
+            if (options.compare() != null) {
+                result.printComparison(LatencyReport.Result.load(options.compare()), System.out);
+            }
+            if (options.save() != null) {
+                result.save(options.save());
+                System.out.println("Baseline saved to " + options.save());
+            }
+        } finally {
+            if (app != null) {
+                app.destroy();
+                app.waitFor(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    LatencyReport.Result run() throws IOException, InterruptedException {
+        seed();
+        System.out.printf("Warming up for %s at %d req/s%n", options.warmup(), options.rate());
+        drive(options.warmup());
+        report.reset();
+
+        System.out.printf("Measuring for %s at %d req/s%n", options.duration(), options.rate());
+        long start = System.nanoTime();
+        drive(options.duration());
+        return report.result(options, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        for (int offset = 0; offset < options.seed(); offset += SEED_BATCH) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = offset; i < Math.min(options.seed(), offset + SEED_BATCH); i++) {
+                body.append(i > offset ? "," : "").append("{\"description\":\"Seeded todo ").append(i).append("\",\"completed\":false}");
+            }
+            HttpResponse<String> response = client.send(json("/todos/batch", "POST", body.append(']').toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+            for (JsonNode todo : JSON.readTree(response.body())) {
+                ids.add(todo.get("id").asLong());
+            }
+        }
+        seeded = ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Starts request i at start + i / rate and waits for every request to finish
+    private void drive(Duration length) {
+        if (length.isZero()) {
+            return;
+        }
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + i * 1_000_000_000L / options.rate();
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquireUninterruptibly();
+            send(schedule[ThreadLocalRandom.current().nextInt(schedule.length)], intended);
+        }
+        inFlight.acquireUninterruptibly(options.concurrency());
+        inFlight.release(options.concurrency());
+    }
+
+    private void send(Operation operation, long intended) {
+        Long deleteId = operation == Operation.DELETE ? created.poll() : null;
+        if (operation == Operation.DELETE && deleteId == null) {
+            // Nothing created yet to delete, keep the arrival rate with a POST instead
+            operation = Operation.POST;
+        }
+        Operation sent = operation;
+        HttpRequest request = switch (operation) {
+            case GET -> get("/todos/" + randomSeededId());
+            case LIST -> get("/todos?after=" + (randomSeededId() - 1) + "&limit=" + PAGE_SIZE);
+            case POST -> json("/todos", "POST", "{\"description\":\"Load test todo\",\"completed\":false}");
+            case PATCH -> json("/todos/" + randomSeededId(), "PATCH",
+                    "{\"completed\":" + ThreadLocalRandom.current().nextBoolean() + "}");
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/todos/" + deleteId))
+                    .timeout(Duration.ofSeconds(30)).DELETE().build();
+        };
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            try {
+                boolean ok = error == null && response.statusCode() < 400;
+                report.record(sent, System.nanoTime() - intended, ok);
+                if (ok && sent == Operation.POST) {
+                    created.add(JSON.readTree(response.body()).get("id").asLong());
+                }
+            } catch (IOException e) {
+                report.record(sent, 0, false);
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private long randomSeededId() {
+        return seeded[ThreadLocalRandom.current().nextInt(seeded.length)];
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+    }
+
+    private HttpRequest json(String path, String method, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    // Runs the packaged jar on a fresh database, logging to target/loadtest/app.log
+    private static Process startApp(LoadOptions options, int port) throws IOException, InterruptedException {
+        Path workDir = Files.createDirectories(Path.of("target", "loadtest"));
+        Path database = Files.createTempFile(workDir, "todos-", ".db");
+        Files.delete(database);
+
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-jar", options.jar().toString(),
+                "--server.port=" + port,
+                "--spring.datasource.url=jdbc:sqlite:" + database));
+        command.addAll(options.appArgs());
+        Process app = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(workDir.resolve("app.log").toFile())
+                .start();
+
+        HttpClient probe = HttpClient.newHttpClient();
+        HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited with " + app.exitValue() + ", see " + workDir.resolve("app.log"));
+            }
+            try {
+                if (probe.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.println("Started " + options.jar() + " on port " + port);
+                    return app;
+                }
+            } catch (IOException notListeningYet) {
+                // Retried until the deadline
+            }
+            Thread.sleep(250);
+        }
+        app.destroy();
+        throw new IllegalStateException("Application did not become healthy within 60s");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
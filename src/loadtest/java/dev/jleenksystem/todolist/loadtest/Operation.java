@@ -0,0 +1,17 @@
+package dev.jleenksystem.todolist.loadtest;
+
+/**
+ * Requests the load test sends, each recorded in its own histogram.
+ */
+enum Operation {
+    // GET /todos/{id}
+    GET,
+    // GET /todos?after=<random id>&limit=50
+    LIST,
+    // POST /todos
+    POST,
+    // PATCH /todos/{id}
+    PATCH,
+    // DELETE /todos/{id} of a todo created by an earlier POST
+    DELETE
+}
@@ -0,0 +1,67 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Online snapshots on {@code /actuator/backups} and restore on startup, bound from {@code todos.backup.*}.
+ */
+@ConfigurationProperties(prefix = "todos.backup")
+public class BackupProperties {
+
+    // Snapshots are written here, one file per backup
+    private String directory = "./backups";
+
+    // Pages copied per step, progress is reported after each
+    private int pagesPerStep = 1024;
+
+    // Pause after each step, so a large copy leaves disk bandwidth to the writer
+    private Duration stepPause = Duration.ofMillis(10);
+
+    // Snapshots kept in the directory after a backup completes, the oldest are deleted first, 0 keeps all
+    private int retain = 10;
+
+    // Snapshot to replace the database with on startup, empty for none
+    private String restoreFrom = "";
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getPagesPerStep() {
+        return pagesPerStep;
+    }
+
+    public void setPagesPerStep(int pagesPerStep) {
+        this.pagesPerStep = pagesPerStep;
+    }
+
+    public Duration getStepPause() {
+        return stepPause;
+    }
+
+    public void setStepPause(Duration stepPause) {
+        this.stepPause = stepPause;
+    }
+
+    public int getRetain() {
+        return retain;
+    }
+
+    public void setRetain(int retain) {
+        this.retain = retain;
+    }
+
+    public String getRestoreFrom() {
+        return restoreFrom;
+    }
+
+    public void setRestoreFrom(String restoreFrom) {
+        this.restoreFrom = restoreFrom;
+    }
+}
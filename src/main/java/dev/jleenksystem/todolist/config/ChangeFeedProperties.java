@@ -0,0 +1,77 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Change feed on {@code GET /todos/changes}, bound from {@code todos.changes.*}.
+ */
+@ConfigurationProperties(prefix = "todos.changes")
+public class ChangeFeedProperties {
+
+    // How often new changes are read for live subscribers, one query serves all of them
+    private Duration pollInterval = Duration.ofMillis(250);
+
+    // Newest changes kept in the log, older ones are purged and a since before them gets 410
+    private long retained = 100_000;
+
+    private Duration purgeInterval = Duration.ofMinutes(1);
+
+    // Changes a live subscriber may fall behind before it is disconnected
+    private int subscriberBuffer = 1000;
+
+    // Comment sent to idle subscribers, so dead connections are noticed
+    private Duration heartbeat = Duration.ofSeconds(15);
+
+    // Live subscriptions end after this long, clients reconnect with Last-Event-ID
+    private Duration timeout = Duration.ofMinutes(30);
+
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+
+    public long getRetained() {
+        return retained;
+    }
+
+    public void setRetained(long retained) {
+        this.retained = retained;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+
+    public int getSubscriberBuffer() {
+        return subscriberBuffer;
+    }
+
+    public void setSubscriberBuffer(int subscriberBuffer) {
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    public Duration getHeartbeat() {
+        return heartbeat;
+    }
+
+    public void setHeartbeat(Duration heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
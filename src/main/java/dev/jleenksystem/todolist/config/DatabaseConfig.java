@@ -1,32 +1,197 @@
 package dev.jleenksystem.todolist.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.util.FileCopyUtils;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
 
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 @Configuration
 public class DatabaseConfig implements InitializingBean {
+    private static final Logger log = LoggerFactory.getLogger(DatabaseConfig.class);
 
     private final JdbcTemplate jdbcTemplate;
+    private final BackupProperties backup;
 
     @Value("${spring.datasource.url}")
     private String datasourceUrl;
 
-    public DatabaseConfig(JdbcTemplate jdbcTemplate) {
+    // Rebuilds the search index from todos on startup, for databases last written without the triggers
+    @Value("${todos.search.rebuild:false}")
+    private boolean rebuildSearchIndex;
+
+    public DatabaseConfig(JdbcTemplate jdbcTemplate, BackupProperties backup) {
         this.jdbcTemplate = jdbcTemplate;
+        this.backup = backup;
     }
 
     @Override
     public void afterPropertiesSet() throws Exception {
-        // Run schema.sql to ensure table exists on startup
+        // Before anything else, so the schema and the migrations below apply to the restored database
+        if (!backup.getRestoreFrom().isBlank()) {
+            restore(Path.of(backup.getRestoreFrom()));
+        }
+
+        // A counter row created next to existing todos starts at zero and has to be counted once
+        boolean countersMissing = count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'todos_meta'") == 0;
+
+        // Keys used to be global. Their client is unknown, so they could never be matched again
+        // and are dropped. schema.sql recreates the table keyed by client
+        if (count("SELECT COUNT(*) FROM pragma_table_info('idempotency_keys') WHERE name = 'client'") == 0) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS idempotency_keys");
+        }
+
+        // Run schema.sql to ensure tables exist on startup
         var resource = new ClassPathResource("schema.sql");
-        byte[] bytes = FileCopyUtils.copyToByteArray(resource.getInputStream());
-        String sql = new String(bytes, StandardCharsets.UTF_8);
-        jdbcTemplate.execute(sql);
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            ScriptUtils.executeSqlScript(con, resource);
+            return null;
+        });
+
+        // Databases created before optimistic locking have no version column yet
+        addColumnIfMissing("todos", "version", "INTEGER NOT NULL DEFAULT 0");
+        // Likewise for the row counters behind GET /todos/stats
+        countersMissing |= addColumnIfMissing("todos_meta", "total_count", "INTEGER NOT NULL DEFAULT 0");
+        countersMissing |= addColumnIfMissing("todos_meta", "completed_count", "INTEGER NOT NULL DEFAULT 0");
+
+        boolean searchIndexCreated = createSearchIndex();
+        // Rows written before the counter triggers existed, e.g. by spring.sql.init scripts
+        // run ahead of this bean, were never counted
+        countersMissing |= count("SELECT COUNT(*) FROM sqlite_master WHERE type = 'trigger' "
+                + "AND name = 'todos_meta_after_insert'") == 0;
+        createTriggers();
+        if (countersMissing) {
+            jdbcTemplate.execute("UPDATE todos_meta SET total_count = (SELECT COUNT(*) FROM todos), "
+                    + "completed_count = (SELECT COUNT(*) FROM todos WHERE completed != 0) WHERE id = 1");
+        }
+        if (searchIndexCreated || rebuildSearchIndex) {
+            jdbcTemplate.execute("INSERT INTO todos_fts (todos_fts) VALUES ('rebuild')");
+        }
+        analyzeIfMissingStats();
+    }
+
+    /**
+     * Replaces the whole database with a snapshot, such as one written by /actuator/backups.
+     * Goes through SQLite's backup API on the writer connection rather than copying files,
+     * so it is safe while the database is open and leaves no stale WAL behind.
+     * The snapshot is then renamed to {@code <name>.restored}, so a restart with the same
+     * setting keeps the writes made since instead of restoring it again.
+     */
+    private void restore(Path snapshot) {
+        Path restored = snapshot.resolveSibling(snapshot.getFileName() + ".restored");
+        if (!Files.exists(snapshot) && Files.isRegularFile(restored)) {
+            log.info("Snapshot {} was already restored, keeping {}", snapshot.toAbsolutePath(), datasourceUrl);
+            return;
+        }
+        if (!Files.isRegularFile(snapshot)) {
+            throw new IllegalStateException("todos.backup.restore-from " + snapshot + " is not a file");
+        }
+        log.warn("Replacing {} with the snapshot {}", datasourceUrl, snapshot.toAbsolutePath());
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            int rc = con.unwrap(SQLiteConnection.class).getDatabase().restore("main", snapshot.toString(), null);
+            if (rc != SQLiteErrorCode.SQLITE_OK.code && rc != SQLiteErrorCode.SQLITE_DONE.code) {
+                throw new SQLException("Restoring " + snapshot + " failed: " + SQLiteErrorCode.getErrorCode(rc), null, rc);
+            }
+            return null;
+        });
+        try {
+            Files.move(snapshot, restored, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("Restored " + snapshot + " but could not rename it to " + restored
+                    + ", clear todos.backup.restore-from before the next start", e);
+        }
+    }
+
+    // Without statistics the planner cannot tell a selective description range from the
+    // completed flag, and never picks the partial index on open todos. Stats are gathered
+    // once, from a bounded sample so startup stays fast on large tables.
+    private void analyzeIfMissingStats() {
+        boolean analyzed = count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'sqlite_stat1'") > 0
+                && count("SELECT COUNT(*) FROM sqlite_stat1 WHERE tbl = 'todos'") > 0;
+        if (!analyzed) {
+            jdbcTemplate.execute("PRAGMA analysis_limit = 1000");
+            jdbcTemplate.execute("ANALYZE todos");
+        }
+    }
+
+    private int count(String sql) {
+        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Full-text index over descriptions. It is an external-content table, so it stores
+     * only the index and reads descriptions back from todos. Created here rather than in
+     * schema.sql, so that a newly created index can be filled from the existing rows.
+     */
+    private boolean createSearchIndex() {
+        if (count("SELECT COUNT(*) FROM sqlite_master WHERE name = 'todos_fts'") > 0) {
+            return false;
+        }
+        // prefix='2 3' keeps extra index entries for short prefixes, so 'bu*' does not scan every term
+        jdbcTemplate.execute("CREATE VIRTUAL TABLE todos_fts USING fts5(description, content='todos', "
+                + "content_rowid='id', tokenize='unicode61 remove_diacritics 2', prefix='2 3')");
+        return true;
+    }
+
+    // Trigger bodies contain semicolons, so they are created here rather than in schema.sql.
+    // They are recreated on every start to pick up changed definitions.
+    private void createTriggers() {
+        // Row counters move by the difference each write makes, so reading them never scans todos
+        Map<String, String> counterChanges = Map.of(
+                "INSERT", "total_count = total_count + 1, completed_count = completed_count + (new.completed != 0)",
+                "UPDATE", "completed_count = completed_count + (new.completed != 0) - (old.completed != 0)",
+                "DELETE", "total_count = total_count - 1, completed_count = completed_count - (old.completed != 0)");
+        counterChanges.forEach((event, counters) ->
+                createTrigger("todos_meta_after_" + event.toLowerCase(Locale.ROOT), "AFTER " + event + " ON todos",
+                        "UPDATE todos_meta SET change_count = change_count + 1, " + counters + " WHERE id = 1;"));
+
+        // Change feed log, read by TodoChangeFeed
+        createTrigger("todo_changes_after_insert", "AFTER INSERT ON todos",
+                "INSERT INTO todo_changes (todo_id, type) VALUES (new.id, 'created');");
+        createTrigger("todo_changes_after_update", "AFTER UPDATE ON todos",
+                "INSERT INTO todo_changes (todo_id, type) VALUES (new.id, 'updated');");
+        createTrigger("todo_changes_after_delete", "AFTER DELETE ON todos",
+                "INSERT INTO todo_changes (todo_id, type) VALUES (old.id, 'deleted');");
+
+        // Keeps todos_fts in step with todos, an external-content index has to be told the old text to remove it
+        createTrigger("todos_fts_after_insert", "AFTER INSERT ON todos",
+                "INSERT INTO todos_fts (rowid, description) VALUES (new.id, new.description);");
+        createTrigger("todos_fts_after_delete", "AFTER DELETE ON todos",
+                "INSERT INTO todos_fts (todos_fts, rowid, description) VALUES ('delete', old.id, old.description);");
+        createTrigger("todos_fts_after_update",
+                "AFTER UPDATE OF description ON todos WHEN old.description IS NOT new.description",
+                "INSERT INTO todos_fts (todos_fts, rowid, description) VALUES ('delete', old.id, old.description); "
+                        + "INSERT INTO todos_fts (rowid, description) VALUES (new.id, new.description);");
+    }
+
+    private void createTrigger(String name, String when, String body) {
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + name);
+        jdbcTemplate.execute("CREATE TRIGGER " + name + " " + when + " BEGIN " + body + " END");
+    }
+
+    // Returns whether the column had to be added
+    private boolean addColumnIfMissing(String table, String column, String definition) {
+        List<String> columns = jdbcTemplate.queryForList("SELECT name FROM pragma_table_info(?)", String.class, table);
+        if (columns.contains(column)) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        return true;
     }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Storage engine selection, bound from {@code todos.engine.*}.
+ */
+@ConfigurationProperties(prefix = "todos.engine")
+public class EngineProperties {
+
+    // jdbc reads and writes SQLite on every call, memory serves from memory and persists in the background
+    private String type = "jdbc";
+
+    // Memory engine only: acknowledged writes reach SQLite at most this long after they were made
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+}
@@ -0,0 +1,45 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Idempotency-Key handling on {@code POST /todos}, bound from {@code todos.idempotency.*}.
+ */
+@ConfigurationProperties(prefix = "todos.idempotency")
+public class IdempotencyProperties {
+
+    // How long a key is remembered, a retry after that creates another todo
+    private Duration ttl = Duration.ofHours(24);
+
+    // Most recent keys answered from memory, older ones are looked up in SQLite
+    private long maxSize = 10_000;
+
+    // How often expired keys are deleted from SQLite
+    private Duration purgeInterval = Duration.ofMinutes(10);
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getPurgeInterval() {
+        return purgeInterval;
+    }
+
+    public void setPurgeInterval(Duration purgeInterval) {
+        this.purgeInterval = purgeInterval;
+    }
+}
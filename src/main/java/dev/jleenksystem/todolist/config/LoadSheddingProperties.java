@@ -0,0 +1,56 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Load shedding on {@code /todos}, bound from {@code todos.load-shedding.*}.
+ */
+@ConfigurationProperties(prefix = "todos.load-shedding")
+public class LoadSheddingProperties {
+
+    // Off unless turned on
+    private boolean enabled = false;
+
+    // Requests waiting for a connection of a pool before new requests needing that pool are turned away
+    private int maxPoolWaiters = 32;
+
+    // Mutations waiting in the write queue before new mutations are turned away
+    private int maxWriteQueueDepth = 5000;
+
+    // Sent as Retry-After with 503
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxPoolWaiters() {
+        return maxPoolWaiters;
+    }
+
+    public void setMaxPoolWaiters(int maxPoolWaiters) {
+        this.maxPoolWaiters = maxPoolWaiters;
+    }
+
+    public int getMaxWriteQueueDepth() {
+        return maxWriteQueueDepth;
+    }
+
+    public void setMaxWriteQueueDepth(int maxWriteQueueDepth) {
+        this.maxWriteQueueDepth = maxWriteQueueDepth;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+
+    public void setRetryAfter(Duration retryAfter) {
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,73 @@
+package dev.jleenksystem.todolist.config;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounds how many virtual threads may hold a SQLite connection at once. sqlite-jdbc runs
+ * every statement inside synchronized native code, which pins the carrier for the whole
+ * call, so with one holder per carrier nothing would be left to run request handling.
+ *
+ * <p>A thread takes a single permit however many connections it holds, reader and writer
+ * together, since it is only ever inside one call. It takes the permit before its first
+ * connection and never waits for one while holding a connection, so permits cannot
+ * deadlock with the pools. Platform threads, such as the write queue's writer, pin no
+ * carrier and take no permit.
+ */
+final class PinnedCallLimit {
+    private final Semaphore permits;
+    private final ThreadLocal<int[]> held = ThreadLocal.withInitial(() -> new int[1]);
+
+    PinnedCallLimit(int permits) {
+        this.permits = new Semaphore(permits);
+    }
+
+    /**
+     * One permit per carrier but the last. With a single carrier no JDBC call could run
+     * without pinning it, so virtual threads are refused rather than left to stall.
+     */
+    static int permits(int carrierThreads) {
+        if (carrierThreads < 2) {
+            throw new IllegalStateException("spring.threads.virtual.enabled needs at least 2 virtual thread carriers "
+                    + "to keep one free of SQLite calls, found " + carrierThreads + ". Disable virtual threads or set "
+                    + "-Djdk.virtualThreadScheduler.parallelism=2");
+        }
+        return carrierThreads - 1;
+    }
+
+    void acquire(long timeoutMillis) throws SQLException {
+        if (!Thread.currentThread().isVirtual()) {
+            return;
+        }
+        int[] depth = held.get();
+        if (depth[0] == 0) {
+            try {
+                if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException(
+                            "No SQLite permit available for virtual threads within " + timeoutMillis + "ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted while waiting for a SQLite permit", e);
+            }
+        }
+        depth[0]++;
+    }
+
+    void release() {
+        if (!Thread.currentThread().isVirtual()) {
+            return;
+        }
+        int[] depth = held.get();
+        if (--depth[0] == 0) {
+            held.remove();
+            permits.release();
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+}
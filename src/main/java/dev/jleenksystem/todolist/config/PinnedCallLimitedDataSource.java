@@ -0,0 +1,58 @@
+package dev.jleenksystem.todolist.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * A Hikari pool whose connections, when taken by a virtual thread, hold a permit of a
+ * {@link PinnedCallLimit} shared with the other pool until they are closed.
+ */
+final class PinnedCallLimitedDataSource extends HikariDataSource {
+    private final PinnedCallLimit limit;
+
+    PinnedCallLimitedDataSource(PinnedCallLimit limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!Thread.currentThread().isVirtual()) {
+            return super.getConnection();
+        }
+        limit.acquire(getConnectionTimeout());
+        Connection connection;
+        try {
+            connection = super.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            limit.release();
+            throw e;
+        }
+        return releasing(connection);
+    }
+
+    // The permit goes back with the first close, later ones only reach the pooled connection
+    private Connection releasing(Connection connection) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && !closed[0]) {
+                        closed[0] = true;
+                        try {
+                            connection.close();
+                        } finally {
+                            limit.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
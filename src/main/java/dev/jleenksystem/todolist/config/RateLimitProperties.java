@@ -0,0 +1,66 @@
+package dev.jleenksystem.todolist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Per-client rate limit on {@code /todos}, bound from {@code todos.rate-limit.*}.
+ */
+@ConfigurationProperties(prefix = "todos.rate-limit")
+public class RateLimitProperties {
+
+    // Off unless turned on, clients sharing an address would otherwise share one bucket
+    private boolean enabled = false;
+
+    // Sustained requests per second allowed to one client
+    private double requestsPerSecond = 50;
+
+    // Requests a client may make at once after being idle
+    private int burst = 100;
+
+    // Header a trusted gateway sets to identify the client, empty to key on the remote address.
+    // Clients can send any value themselves, so name only a header the gateway always overwrites
+    private String clientIdHeader = "";
+
+    // Clients tracked at once, the least recently seen are forgotten first
+    private long maxClients = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public String getClientIdHeader() {
+        return clientIdHeader;
+    }
+
+    public void setClientIdHeader(String clientIdHeader) {
+        this.clientIdHeader = clientIdHeader;
+    }
+
+    public long getMaxClients() {
+        return maxClients;
+    }
+
+    public void setMaxClients(long maxClients) {
+        this.maxClients = maxClients;
+    }
+}
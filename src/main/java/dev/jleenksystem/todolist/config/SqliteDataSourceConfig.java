@@ -0,0 +1,106 @@
+package dev.jleenksystem.todolist.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Locale;
+
+/**
+ * Splits access to the SQLite file into a pool of read-only connections and a
+ * dedicated writer. In WAL mode readers never block the writer, and funnelling
+ * writes through one connection means they queue in the pool instead of failing
+ * with SQLITE_BUSY on the file lock.
+ *
+ * <p>With virtual threads enabled both pools share a {@link PinnedCallLimit}:
+ * sqlite-jdbc runs every statement inside synchronized native code, which pins
+ * the carrier thread for its whole duration, so at most one virtual thread per
+ * carrier but the last may hold a connection.
+ */
+@Configuration
+public class SqliteDataSourceConfig {
+    private static final Logger log = LoggerFactory.getLogger(SqliteDataSourceConfig.class);
+
+    // Primary, so schema init, transactions and the default JdbcTemplate all write through it
+    @Bean
+    @Primary
+    public HikariDataSource writeDataSource(DataSourceProperties properties, SqliteProperties sqlite,
+                                            ObjectProvider<PinnedCallLimit> pinnedCalls) {
+        SQLiteConfig config = pragmas(sqlite);
+        config.setJournalMode(SQLiteConfig.JournalMode.valueOf(sqlite.getJournalMode().toUpperCase(Locale.ROOT)));
+        config.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(sqlite.getSynchronous().toUpperCase(Locale.ROOT)));
+
+        HikariDataSource dataSource = dataSource(properties, config, sqlite, pinnedCalls.getIfAvailable());
+        dataSource.setPoolName("sqlite-writer");
+        dataSource.setMaximumPoolSize(sqlite.getWritePoolSize());
+        return dataSource;
+    }
+
+    // Journal mode is persistent in the database file, so readers only need the per-connection pragmas
+    @Bean
+    public HikariDataSource readDataSource(DataSourceProperties properties, SqliteProperties sqlite,
+                                           ObjectProvider<PinnedCallLimit> pinnedCalls) {
+        SQLiteConfig config = pragmas(sqlite);
+        config.setReadOnly(true);
+
+        HikariDataSource dataSource = dataSource(properties, config, sqlite, pinnedCalls.getIfAvailable());
+        dataSource.setPoolName("sqlite-reader");
+        dataSource.setMaximumPoolSize(sqlite.getReadPoolSize());
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public JdbcTemplate jdbcTemplate(@Qualifier("writeDataSource") HikariDataSource writeDataSource) {
+        return new JdbcTemplate(writeDataSource);
+    }
+
+    @Bean
+    public JdbcTemplate readJdbcTemplate(@Qualifier("readDataSource") HikariDataSource readDataSource) {
+        return new JdbcTemplate(readDataSource);
+    }
+
+    // Shared by both pools, so reader and writer connections together leave a carrier free
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    PinnedCallLimit pinnedCallLimit() {
+        int carriers = Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+        int permits = PinnedCallLimit.permits(carriers);
+        log.info("At most {} virtual threads hold a SQLite connection at once, for {} carriers", permits, carriers);
+        return new PinnedCallLimit(permits);
+    }
+
+    private static SQLiteConfig pragmas(SqliteProperties sqlite) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(sqlite.getBusyTimeout());
+        config.setCacheSize(sqlite.getCacheSize());
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(sqlite.getMmapSize()));
+        return config;
+    }
+
+    // A fixed-size pool of connections that are never retired, each with its own statement cache
+    private static HikariDataSource dataSource(DataSourceProperties properties, SQLiteConfig config, SqliteProperties sqlite,
+                                               PinnedCallLimit pinnedCalls) {
+        SQLiteDataSource connections = new SQLiteDataSource(config);
+        connections.setUrl(properties.determineUrl());
+
+        HikariDataSource dataSource = pinnedCalls != null ? new PinnedCallLimitedDataSource(pinnedCalls) : new HikariDataSource();
+        dataSource.setDataSource(sqlite.getStatementCacheSize() > 0
+                ? new StatementCachingDataSource(connections, sqlite.getStatementCacheSize()) : connections);
+        dataSource.setMaxLifetime(sqlite.getMaxLifetime().toMillis());
+        return dataSource;
+    }
+}
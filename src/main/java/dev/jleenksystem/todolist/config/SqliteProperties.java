@@ -0,0 +1,110 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * SQLite connection pragmas and pool sizes, bound from {@code todos.sqlite.*}.
+ */
+@ConfigurationProperties(prefix = "todos.sqlite")
+public class SqliteProperties {
+
+    // WAL lets readers run while the writer commits
+    private String journalMode = "WAL";
+
+    // NORMAL is durable across application crashes in WAL mode, only an OS crash can lose the last commits
+    private String synchronous = "NORMAL";
+
+    // Bytes of the database file mapped into memory
+    private long mmapSize = 268_435_456L;
+
+    // Negative values are KiB, positive values are pages
+    private int cacheSize = -65_536;
+
+    // Milliseconds a connection waits on a lock before failing with SQLITE_BUSY
+    private int busyTimeout = 5_000;
+
+    private int readPoolSize = Runtime.getRuntime().availableProcessors();
+
+    // SQLite allows one writer at a time, more connections would only wait on the file lock
+    private int writePoolSize = 1;
+
+    // Prepared statements kept open per connection, 0 prepares every statement afresh
+    private int statementCacheSize = 64;
+
+    // Pooled connections are never retired when 0, so their statement caches stay warm
+    private Duration maxLifetime = Duration.ZERO;
+
+    public String getJournalMode() {
+        return journalMode;
+    }
+
+    public void setJournalMode(String journalMode) {
+        this.journalMode = journalMode;
+    }
+
+    public String getSynchronous() {
+        return synchronous;
+    }
+
+    public void setSynchronous(String synchronous) {
+        this.synchronous = synchronous;
+    }
+
+    public long getMmapSize() {
+        return mmapSize;
+    }
+
+    public void setMmapSize(long mmapSize) {
+        this.mmapSize = mmapSize;
+    }
+
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public int getBusyTimeout() {
+        return busyTimeout;
+    }
+
+    public void setBusyTimeout(int busyTimeout) {
+        this.busyTimeout = busyTimeout;
+    }
+
+    public int getReadPoolSize() {
+        return readPoolSize;
+    }
+
+    public void setReadPoolSize(int readPoolSize) {
+        this.readPoolSize = readPoolSize;
+    }
+
+    public int getWritePoolSize() {
+        return writePoolSize;
+    }
+
+    public void setWritePoolSize(int writePoolSize) {
+        this.writePoolSize = writePoolSize;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public Duration getMaxLifetime() {
+        return maxLifetime;
+    }
+
+    public void setMaxLifetime(Duration maxLifetime) {
+        this.maxLifetime = maxLifetime;
+    }
+}
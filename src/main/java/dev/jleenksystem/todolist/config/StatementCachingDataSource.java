@@ -0,0 +1,187 @@
+package dev.jleenksystem.todolist.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Keeps prepared statements open on each physical connection and hands them out again
+ * for the same SQL, so a query is parsed and planned by SQLite once per connection
+ * instead of once per call. sqlite-jdbc has no statement cache of its own.
+ *
+ * <p>Sits below the Hikari pool, so a cache lives as long as its pooled connection.
+ * Only {@code prepareStatement(String)} is cached, which is what JdbcTemplate uses for
+ * every query with arguments. Closing a cached statement clears its parameters and
+ * returns it to the cache. If the same SQL is prepared again while its statement is
+ * still open, for a nested query, the second one is prepared uncached. At most
+ * {@code capacity} statements are kept per connection, least recently used first out.
+ */
+class StatementCachingDataSource extends DelegatingDataSource {
+
+    private final int capacity;
+
+    StatementCachingDataSource(DataSource target, int capacity) {
+        super(target);
+        this.capacity = capacity;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return cachingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return cachingConnection(super.getConnection(username, password));
+    }
+
+    private Connection cachingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                new CachingConnection(target, capacity));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    private static final class CachingConnection implements InvocationHandler {
+        private final Connection target;
+        private final Map<String, CachedStatement> statements;
+
+        CachingConnection(Connection target, int capacity) {
+            this.target = target;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= capacity) {
+                        return false;
+                    }
+                    eldest.getValue().evict();
+                    return true;
+                }
+            };
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement":
+                    if (args.length == 1) {
+                        return prepare((String) args[0], (Connection) proxy);
+                    }
+                    break;
+                case "close":
+                    closeAll();
+                    break;
+                default:
+                    break;
+            }
+            return StatementCachingDataSource.invoke(target, method, args);
+        }
+
+        private synchronized PreparedStatement prepare(String sql, Connection proxy) throws SQLException {
+            CachedStatement cached = statements.get(sql);
+            if (cached == null) {
+                cached = new CachedStatement(target.prepareStatement(sql), proxy);
+                statements.put(sql, cached);
+            } else if (cached.inUse) {
+                return target.prepareStatement(sql);
+            }
+            cached.inUse = true;
+            return cached.proxy;
+        }
+
+        private synchronized void closeAll() throws SQLException {
+            List<CachedStatement> open = new ArrayList<>(statements.values());
+            statements.clear();
+            SQLException failure = null;
+            for (CachedStatement statement : open) {
+                try {
+                    statement.target.close();
+                } catch (SQLException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static final class CachedStatement implements InvocationHandler {
+        private final PreparedStatement target;
+        private final PreparedStatement proxy;
+        private final Connection connection;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement target, Connection connection) {
+            this.target = target;
+            this.connection = connection;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, this);
+        }
+
+        // Out of the cache: closed now, or when its current user closes it
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return !inUse || target.isClosed();
+                case "getConnection":
+                    return connection;
+                default:
+                    if (!inUse && method.getDeclaringClass() != Object.class) {
+                        throw new SQLException("Statement is closed");
+                    }
+                    return StatementCachingDataSource.invoke(target, method, args);
+            }
+        }
+
+        private void release() throws SQLException {
+            if (!inUse) {
+                return;
+            }
+            inUse = false;
+            if (evicted) {
+                target.close();
+            } else {
+                target.clearParameters();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                target.close();
+            } catch (SQLException e) {
+                // Nothing to recover, the statement is dropped either way
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings of the todo lookup cache, bound from {@code todos.cache.*}.
+ */
+@ConfigurationProperties(prefix = "todos.cache")
+public class TodoCacheProperties {
+
+    // Maximum cached ids, hits and misses included. 0 disables the cache
+    private long maxSize = 10_000;
+
+    // Entries expire this long after they were loaded
+    private Duration ttl = Duration.ofSeconds(60);
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
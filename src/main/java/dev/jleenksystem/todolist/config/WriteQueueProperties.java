@@ -0,0 +1,56 @@
+package dev.jleenksystem.todolist.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Group commit settings, bound from {@code todos.write-queue.*}.
+ */
+@ConfigurationProperties(prefix = "todos.write-queue")
+public class WriteQueueProperties {
+
+    // When disabled every mutation runs and commits on the calling thread
+    private boolean enabled = false;
+
+    // Callers block once this many mutations are waiting
+    private int capacity = 10_000;
+
+    // Upper bound of mutations committed together
+    private int batchSize = 256;
+
+    // How long the writer waits for more mutations before committing a partial batch
+    private Duration maxLinger = Duration.ofMillis(2);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public Duration getMaxLinger() {
+        return maxLinger;
+    }
+
+    public void setMaxLinger(Duration maxLinger) {
+        this.maxLinger = maxLinger;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.jleenksystem.todolist.controller;
+
+import java.util.List;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import dev.jleenksystem.todolist.model.BackupJob;
+import dev.jleenksystem.todolist.service.BackupService;
+
+/**
+ * Online backups on {@code /actuator/backups}. Like every actuator endpoint it is only
+ * reachable once listed in {@code management.endpoints.web.exposure.include}, and it moves
+ * with {@code management.server.port} to a port kept off the public network.
+ */
+@Component
+@Endpoint(id = "backups")
+public class BackupEndpoint {
+
+    private final BackupService backupService;
+
+    public BackupEndpoint(BackupService backupService) {
+        this.backupService = backupService;
+    }
+
+    // POST /actuator/backups starts an online snapshot, its progress is polled on /actuator/backups/{id}
+    @WriteOperation
+    public WebEndpointResponse<BackupJob> startBackup() {
+        return new WebEndpointResponse<>(backupService.backup(), HttpStatus.ACCEPTED.value());
+    }
+
+    // GET /actuator/backups, the most recent backups, newest first
+    @ReadOperation
+    public List<BackupJob> getBackups() {
+        return backupService.getJobs();
+    }
+
+    // GET /actuator/backups/{id}, 404 for an unknown id
+    @ReadOperation
+    public BackupJob getBackup(@Selector long id) {
+        return backupService.getJob(id).orElse(null);
+    }
+}
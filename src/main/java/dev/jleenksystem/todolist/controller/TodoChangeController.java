@@ -0,0 +1,47 @@
+package dev.jleenksystem.todolist.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import dev.jleenksystem.todolist.dto.TodoChangePage;
+import dev.jleenksystem.todolist.exception.ChangesExpiredException;
+import dev.jleenksystem.todolist.service.TodoChangeFeed;
+import dev.jleenksystem.todolist.service.TodoService;
+
+@RestController
+@RequestMapping("/todos/changes")
+public class TodoChangeController {
+
+    private final TodoChangeFeed changeFeed;
+
+    public TodoChangeController(TodoChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    // GET /todos/changes?since={seq}&limit={n}, without since only the current lastSeq
+    @GetMapping
+    public ResponseEntity<TodoChangePage> getChanges(@RequestParam(required = false) Long since,
+                                                     @RequestParam(required = false) Integer limit) {
+        int size = limit != null ? limit : TodoService.DEFAULT_PAGE_SIZE;
+        return ResponseEntity.ok(changeFeed.getChanges(since, size));
+    }
+
+    // GET /todos/changes?since={seq} with Accept: text/event-stream, a reconnect resumes from Last-Event-ID
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false) Long since,
+                                                    @RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            return ResponseEntity.ok(changeFeed.subscribe(lastEventId != null ? lastEventId : since));
+        } catch (ChangesExpiredException e) {
+            // The error body cannot be written as an event stream, the status alone tells the client to reload
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+    }
+}
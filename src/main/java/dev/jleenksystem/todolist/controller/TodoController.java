@@ -1,50 +1,199 @@
 package dev.jleenksystem.todolist.controller;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.dto.TodoImportReport;
+import dev.jleenksystem.todolist.dto.TodoPage;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoStats;
+import dev.jleenksystem.todolist.ratelimit.ClientIdResolver;
+import dev.jleenksystem.todolist.service.IdempotentResult;
+import dev.jleenksystem.todolist.service.TodoCursor;
+import dev.jleenksystem.todolist.service.TodoExportService;
+import dev.jleenksystem.todolist.service.TodoImportService;
 import dev.jleenksystem.todolist.service.TodoService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/todos")
 public class TodoController {
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    static final String TEXT_CSV_VALUE = "text/csv";
+    static final MediaType TEXT_CSV = MediaType.parseMediaType(TEXT_CSV_VALUE);
 
     private final TodoService todoService;
+    private final TodoExportService exportService;
+    private final TodoImportService importService;
+    private final ClientIdResolver clientIds;
 
-    public TodoController(TodoService todoService) {
+    public TodoController(TodoService todoService, TodoExportService exportService, TodoImportService importService,
+                          ClientIdResolver clientIds) {
         this.todoService = todoService;
+        this.exportService = exportService;
+        this.importService = importService;
+        this.clientIds = clientIds;
     }
 
-    // GET /todos
+    // GET /todos, GET /todos?after={id}&limit={n}, GET /todos?cursor={nextCursor}&limit={n}
+    // Filters: completed={true|false}, prefix={description prefix}, order={asc|desc}
     @GetMapping
-    public ResponseEntity<List<TodoDto>> getAllTodos() {
-        return ResponseEntity.ok(todoService.getAll());
+    public ResponseEntity<?> getAllTodos(@RequestParam(required = false) Long after,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer limit,
+                                         @RequestParam(required = false) Boolean completed,
+                                         @RequestParam(required = false) String prefix,
+                                         @RequestParam(required = false) String order,
+                                         WebRequest request) {
+        boolean paged = after != null || cursor != null || limit != null
+                || completed != null || prefix != null || order != null;
+        Long afterId = cursor != null ? Long.valueOf(TodoCursor.decode(cursor)) : after;
+        int size = limit != null ? limit : TodoService.DEFAULT_PAGE_SIZE;
+        TodoFilter filter = new TodoFilter(completed, prefix, isDescending(order));
+
+        // Read before the data, so a concurrent write can only make the tag older than the body, never newer
+        if (request.checkNotModified(TodoEtags.ofCollection(todoService.changeCount()))) {
+            return null;
+        }
+
+        if (!paged) {
+            // Unpaginated form, capped by todos.list.max-size. A cut list links to the rest,
+            // so a client cannot take it for the whole collection
+            TodoPage todos = todoService.getAll();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (todos.getNextCursor() != null) {
+                response.header(HttpHeaders.LINK, "</todos?cursor=" + todos.getNextCursor() + ">; rel=\"next\"");
+            }
+            return response.body(todos.getItems());
+        }
+        return ResponseEntity.ok(todoService.getPage(filter, afterId, size));
+    }
+
+    private static boolean isDescending(String order) {
+        if (order == null || order.equalsIgnoreCase("asc")) {
+            return false;
+        }
+        if (order.equalsIgnoreCase("desc")) {
+            return true;
+        }
+        throw new BadRequestException("order must be asc or desc");
+    }
+
+    // GET /todos/search?q={words}&limit={n}&offset={n}, a word ending in * matches as a prefix
+    @GetMapping("/search")
+    public ResponseEntity<List<TodoDto>> searchTodos(@RequestParam(required = false) String q,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(defaultValue = "0") int offset) {
+        int size = limit != null ? limit : TodoService.DEFAULT_PAGE_SIZE;
+        return ResponseEntity.ok(todoService.search(q, size, offset));
+    }
+
+    // GET /todos/stats, counts of all, completed and open todos
+    @GetMapping("/stats")
+    public ResponseEntity<TodoStats> getStats(WebRequest request) {
+        // Counts change only with the collection, so the collection tag fits
+        if (request.checkNotModified(TodoEtags.ofCollection(todoService.changeCount()))) {
+            return null;
+        }
+        return ResponseEntity.ok(todoService.getStats());
+    }
+
+    // GET /todos/stream
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTodos() {
+        StreamingResponseBody body = exportService::writeNdjson;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    // GET /todos/stream with Accept: text/csv, the same export as CSV
+    @GetMapping(value = "/stream", produces = TEXT_CSV_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamTodosCsv() {
+        StreamingResponseBody body = exportService::writeCsv;
+        return ResponseEntity.ok().contentType(TEXT_CSV).body(body);
+    }
+
+    // POST /todos/import, a CSV body with a header row, inserted in chunks as it is read
+    @PostMapping(value = "/import", consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<TodoImportReport> importCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(importService.importCsv(body));
+    }
+
+    // POST /todos/import, an NDJSON body, one todo per line
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<TodoImportReport> importNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(importService.importNdjson(body));
     }
 
     // GET /todos/{id}
     @GetMapping("/{id}")
-    public ResponseEntity<TodoDto> getTodoById(@PathVariable Long id) {
+    public ResponseEntity<TodoDto> getTodoById(@PathVariable Long id, WebRequest request) {
         TodoDto todo = todoService.getById(id);
-        return todo != null ? ResponseEntity.ok(todo)
+        if (todo != null && todo.getVersion() != null && request.checkNotModified(TodoEtags.of(todo.getVersion()))) {
+            // 304, nothing is serialized
+            return null;
+        }
+        return todo != null ? withEtag(todo)
                 : ResponseEntity.notFound().build();
     }
 
-    // POST /todos
+    // POST /todos, a retry with the same Idempotency-Key gets the first response back instead of a duplicate.
+    // Keys are scoped to the client, identified as for rate limiting
     @PostMapping
-    public ResponseEntity<TodoDto> createTodo(@Valid @RequestBody TodoDto todo) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(todoService.create(todo));
+    public ResponseEntity<TodoDto> createTodo(@Valid @RequestBody TodoDto todo,
+                                              @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                              HttpServletRequest request) {
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(todoService.create(todo));
+        }
+        IdempotentResult<TodoDto> result = todoService.create(todo, clientIds.resolve(request), idempotencyKey);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.CREATED);
+        if (result.replayed()) {
+            response.header(IDEMPOTENT_REPLAYED, "true");
+        }
+        return response.body(result.value());
+    }
+
+    // POST /todos/batch
+    @PostMapping("/batch")
+    public ResponseEntity<List<TodoDto>> createTodos(@RequestBody List<@Valid TodoDto> todos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(todoService.createAll(todos));
+    }
+
+    // PATCH /todos/batch
+    @PatchMapping("/batch")
+    public ResponseEntity<List<TodoDto>> updateTodos(@RequestBody List<TodoDto> partialUpdates) {
+        return ResponseEntity.ok(todoService.patchAll(partialUpdates));
+    }
+
+    // DELETE /todos/batch?ids=1,2,3
+    @DeleteMapping("/batch")
+    public ResponseEntity<Void> deleteTodos(@RequestParam List<Long> ids) {
+        todoService.deleteAll(ids);
+        return ResponseEntity.noContent().build();
     }
 
     // PATCH /todos/{id}
     @PatchMapping("/{id}")
-    public ResponseEntity<TodoDto> updateTodo(@PathVariable Long id, @RequestBody TodoDto partialUpdate) {
-        TodoDto updated = todoService.patch(id, partialUpdate);
-        return updated != null ? ResponseEntity.ok(updated)
+    public ResponseEntity<TodoDto> updateTodo(@PathVariable Long id, @RequestBody TodoDto partialUpdate,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Set<Long> expectedVersions = TodoEtags.parseIfMatch(ifMatch);
+        TodoDto updated = expectedVersions == null ? todoService.patch(id, partialUpdate)
+                : todoService.patch(id, partialUpdate, expectedVersions);
+        return updated != null ? withEtag(updated)
                 : ResponseEntity.notFound().build();
     }
 
@@ -54,4 +203,12 @@ public class TodoController {
         todoService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    private static ResponseEntity<TodoDto> withEtag(TodoDto todo) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (todo.getVersion() != null) {
+            response.eTag(TodoEtags.of(todo.getVersion()));
+        }
+        return response.body(todo);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package dev.jleenksystem.todolist.controller;
+
+import dev.jleenksystem.todolist.exception.BadRequestException;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Strong entity tags derived from the todo version, e.g. {@code "3"}, and weak tags for lists.
+ */
+public class TodoEtags {
+
+    public static String of(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // Tag of any list representation, changes whenever any todo changes. Weak, as it stands for
+    // every encoding of the list, and Tomcat does not compress responses with a strong tag
+    public static String ofCollection(long changeCount) {
+        return "W/\"c" + changeCount + "\"";
+    }
+
+    /**
+     * Returns the versions named by an If-Match header, null for {@code *} or no header.
+     * The header is a comma separated list of entity tags as in RFC 9110. Weak tags, and
+     * tags that are not one of our versions, are left out as they can never match, so the
+     * set may be empty. Throws {@link BadRequestException} for a header that is not such a list.
+     */
+    public static Set<Long> parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Set<Long> versions = new LinkedHashSet<>();
+        int i = 0;
+        int end = ifMatch.length();
+        while (i < end) {
+            char c = ifMatch.charAt(i);
+            // Empty list elements and whitespace around the commas are allowed
+            if (c == ',' || c == ' ' || c == '\t') {
+                i++;
+                continue;
+            }
+            boolean weak = ifMatch.startsWith("W/", i);
+            int open = weak ? i + 2 : i;
+            if (open >= end || ifMatch.charAt(open) != '"') {
+                throw malformed(ifMatch);
+            }
+            int close = open + 1;
+            while (close < end && isEtagChar(ifMatch.charAt(close))) {
+                close++;
+            }
+            if (close >= end || ifMatch.charAt(close) != '"') {
+                throw malformed(ifMatch);
+            }
+            // Weak tags never match under the strong comparison If-Match requires
+            if (!weak) {
+                Long version = version(ifMatch.substring(open + 1, close));
+                if (version != null) {
+                    versions.add(version);
+                }
+            }
+            i = close + 1;
+            while (i < end && (ifMatch.charAt(i) == ' ' || ifMatch.charAt(i) == '\t')) {
+                i++;
+            }
+            if (i < end && ifMatch.charAt(i) != ',') {
+                throw malformed(ifMatch);
+            }
+        }
+        return versions;
+    }
+
+    // etagc: visible ASCII other than the double quote, and obs-text
+    private static boolean isEtagChar(char c) {
+        return c == 0x21 || (c >= 0x23 && c <= 0x7E) || (c >= 0x80 && c <= 0xFF);
+    }
+
+    private static Long version(String opaque) {
+        if (opaque.isEmpty() || !opaque.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            return null;
+        }
+        try {
+            return Long.parseLong(opaque);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static BadRequestException malformed(String ifMatch) {
+        return new BadRequestException("If-Match must be * or a list of entity tags, got: " + ifMatch);
+    }
+}
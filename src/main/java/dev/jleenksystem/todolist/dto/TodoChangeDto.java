@@ -0,0 +1,54 @@
+package dev.jleenksystem.todolist.dto;
+
+public class TodoChangeDto {
+    private long seq;
+    private Long id;
+
+    // created, updated or deleted
+    private String type;
+
+    // Current state of the todo, null when it has been deleted since
+    private TodoDto todo;
+
+    public TodoChangeDto() {
+    }
+
+    public TodoChangeDto(long seq, Long id, String type, TodoDto todo) {
+        this.seq = seq;
+        this.id = id;
+        this.type = type;
+        this.todo = todo;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public TodoDto getTodo() {
+        return todo;
+    }
+
+    public void setTodo(TodoDto todo) {
+        this.todo = todo;
+    }
+}
@@ -0,0 +1,34 @@
+package dev.jleenksystem.todolist.dto;
+
+import java.util.List;
+
+public class TodoChangePage {
+    private List<TodoChangeDto> changes;
+
+    // Pass as since on the next request
+    private long lastSeq;
+
+    public TodoChangePage() {
+    }
+
+    public TodoChangePage(List<TodoChangeDto> changes, long lastSeq) {
+        this.changes = changes;
+        this.lastSeq = lastSeq;
+    }
+
+    public List<TodoChangeDto> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<TodoChangeDto> changes) {
+        this.changes = changes;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
@@ -1,5 +1,7 @@
 package dev.jleenksystem.todolist.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.NotBlank;
 
 public class TodoDto {
@@ -10,6 +12,10 @@ public class TodoDto {
 
     private Boolean completed;
 
+    // Sent as the ETag header rather than in the body
+    @JsonIgnore
+    private Long version;
+
     public TodoDto() {
     }
 
@@ -42,4 +48,12 @@ public class TodoDto {
     public void setCompleted(Boolean completed) {
         this.completed = completed;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
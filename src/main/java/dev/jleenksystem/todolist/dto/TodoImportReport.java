@@ -0,0 +1,73 @@
+package dev.jleenksystem.todolist.dto;
+
+import java.util.List;
+
+public class TodoImportReport {
+    private long ingested;
+    private long rejected;
+
+    // The first rejected rows, with the line each was read from
+    private List<Rejection> rejections;
+
+    public TodoImportReport() {
+    }
+
+    public TodoImportReport(long ingested, long rejected, List<Rejection> rejections) {
+        this.ingested = ingested;
+        this.rejected = rejected;
+        this.rejections = rejections;
+    }
+
+    public long getIngested() {
+        return ingested;
+    }
+
+    public void setIngested(long ingested) {
+        this.ingested = ingested;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public List<Rejection> getRejections() {
+        return rejections;
+    }
+
+    public void setRejections(List<Rejection> rejections) {
+        this.rejections = rejections;
+    }
+
+    public static class Rejection {
+        private long line;
+        private String message;
+
+        public Rejection() {
+        }
+
+        public Rejection(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+}
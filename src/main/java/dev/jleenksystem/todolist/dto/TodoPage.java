@@ -0,0 +1,34 @@
+package dev.jleenksystem.todolist.dto;
+
+import java.util.List;
+
+public class TodoPage {
+    private List<TodoDto> items;
+
+    // Opaque cursor for the next page, null when this is the last page
+    private String nextCursor;
+
+    public TodoPage() {
+    }
+
+    public TodoPage(List<TodoDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TodoDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TodoDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,6 @@
+package dev.jleenksystem.todolist.exception;
+
+// A backup was requested while another one is still running
+public class BackupInProgressException extends RuntimeException {
+    public BackupInProgressException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package dev.jleenksystem.todolist.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) { super(message); }
+}
@@ -0,0 +1,6 @@
+package dev.jleenksystem.todolist.exception;
+
+// The requested changes are no longer in the change log, the client has to reload the full list
+public class ChangesExpiredException extends RuntimeException {
+    public ChangesExpiredException(String message) { super(message); }
+}
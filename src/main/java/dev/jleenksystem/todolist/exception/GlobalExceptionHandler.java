@@ -2,9 +2,11 @@ package dev.jleenksystem.todolist.exception;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -25,6 +27,61 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(TodoVersionMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleVersionMismatch(TodoVersionMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now().toString(),
+                        "error", "Precondition Failed",
+                        "message", ex.getMessage()
+                )
+        );
+    }
+
+    @ExceptionHandler(ChangesExpiredException.class)
+    public ResponseEntity<Map<String, Object>> handleChangesExpired(ChangesExpiredException ex) {
+        return ResponseEntity.status(HttpStatus.GONE).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now().toString(),
+                        "error", "Gone",
+                        "message", ex.getMessage()
+                )
+        );
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now().toString(),
+                        "error", "Unprocessable Entity",
+                        "message", ex.getMessage()
+                )
+        );
+    }
+
+    @ExceptionHandler(BackupInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleBackupInProgress(BackupInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now().toString(),
+                        "error", "Conflict",
+                        "message", ex.getMessage()
+                )
+        );
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(BadRequestException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(
+                Map.of(
+                        "timestamp", LocalDateTime.now().toString(),
+                        "error", "Bad Request",
+                        "message", ex.getMessage()
+                )
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneralError(Exception ex) {
         // Log exception here in real world
@@ -61,4 +118,32 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.badRequest().body(errorBody);
     }
+
+    // Raised for constraints on container elements, e.g. List<@Valid TodoDto> in batch requests
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<Object> handleMethodValidationErrors(HandlerMethodValidationException ex) {
+
+        Map<String, Object> errorBody = new HashMap<>();
+
+        errorBody.put("status", 400);
+        errorBody.put("error", "Validation Failed");
+        errorBody.put("timestamp", LocalDateTime.now());
+
+        List<Map<String, String>> fieldErrors = ex.getParameterValidationResults()
+                .stream()
+                .filter(ParameterErrors.class::isInstance)
+                .map(ParameterErrors.class::cast)
+                .flatMap(result -> result.getFieldErrors().stream().map(error -> {
+                    Map<String, String> err = new HashMap<>();
+                    String index = result.getContainerIndex() != null ? "[" + result.getContainerIndex() + "]." : "";
+                    err.put("field", index + error.getField());
+                    err.put("message", error.getDefaultMessage());
+                    return err;
+                }))
+                .toList();
+
+        errorBody.put("details", fieldErrors);
+
+        return ResponseEntity.badRequest().body(errorBody);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package dev.jleenksystem.todolist.exception;
+
+// An Idempotency-Key was reused with a different request body
+public class IdempotencyKeyMismatchException extends RuntimeException {
+    public IdempotencyKeyMismatchException(String message) { super(message); }
+}
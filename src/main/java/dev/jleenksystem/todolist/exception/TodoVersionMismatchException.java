@@ -0,0 +1,5 @@
+package dev.jleenksystem.todolist.exception;
+
+public class TodoVersionMismatchException extends RuntimeException {
+    public TodoVersionMismatchException(String message) { super(message); }
+}
@@ -1,7 +1,14 @@
 package dev.jleenksystem.todolist.mapper;
 
+import dev.jleenksystem.todolist.dto.TodoChangeDto;
 import dev.jleenksystem.todolist.dto.TodoDto;
 import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoChange;
+import dev.jleenksystem.todolist.model.TodoPatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
 
 public class TodoMapper {
     public static TodoDto toDto(Todo todo) {
@@ -9,10 +16,31 @@ public class TodoMapper {
         dto.setId(todo.getId());
         dto.setDescription(todo.getDescription());
         dto.setCompleted(todo.isCompleted());
+        dto.setVersion(todo.getVersion());
         return dto;
     }
 
+    // Sized up front and without a stream pipeline, every list response is mapped here
+    public static List<TodoDto> toDtoList(List<Todo> todos) {
+        List<TodoDto> dtos = new ArrayList<>(todos.size());
+        for (Todo todo : todos) {
+            dtos.add(toDto(todo));
+        }
+        return dtos;
+    }
+
+    public static TodoChangeDto toDto(TodoChange change) {
+        TodoDto todo = change.getTodo() != null ? toDto(change.getTodo()) : null;
+        return new TodoChangeDto(change.getSeq(), change.getTodoId(),
+                change.getType().name().toLowerCase(Locale.ROOT), todo);
+    }
+
+    // completed is optional on create, a todo without it starts open
     public static Todo toEntity(TodoDto dto) {
-        return new Todo(dto.getId(), dto.getDescription(), dto.getCompleted());
+        return new Todo(dto.getId(), dto.getDescription(), Boolean.TRUE.equals(dto.getCompleted()));
+    }
+
+    public static TodoPatch toPatch(Long id, TodoDto dto) {
+        return new TodoPatch(id, dto.getDescription(), dto.getCompleted());
     }
 }
\ No newline at end of file
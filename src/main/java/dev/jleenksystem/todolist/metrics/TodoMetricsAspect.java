@@ -0,0 +1,119 @@
+package dev.jleenksystem.todolist.metrics;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Times every {@code TodoRepository} and {@code TodoService} call.
+ *
+ * <ul>
+ *   <li>{@code todos.repository} and {@code todos.service}: timers tagged with the
+ *   class, the method and {@code outcome=success|error}.</li>
+ *   <li>{@code todos.repository.rows}: rows returned by each {@code find*} method.</li>
+ *   <li>{@code todos.repository.busy}: calls that failed with SQLITE_BUSY once the
+ *   busy timeout ran out.</li>
+ * </ul>
+ *
+ * <p>Meters are resolved once per method and cached, so a call costs two
+ * {@code nanoTime} reads and a timer update.
+ */
+@Aspect
+@Component
+public class TodoMetricsAspect {
+    private final MeterRegistry registry;
+    private final Map<Method, Meters> meters = new ConcurrentHashMap<>();
+
+    public TodoMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Only the interface methods, so lifecycle and flush calls on the engines are left alone
+    @Around("execution(* dev.jleenksystem.todolist.repository.TodoRepository.*(..))")
+    public Object timeRepository(ProceedingJoinPoint call) throws Throwable {
+        return time(call, "todos.repository", "repository");
+    }
+
+    @Around("execution(public * dev.jleenksystem.todolist.service.TodoService.*(..))")
+    public Object timeService(ProceedingJoinPoint call) throws Throwable {
+        return time(call, "todos.service", "service");
+    }
+
+    private Object time(ProceedingJoinPoint call, String name, String layer) throws Throwable {
+        Method method = ((MethodSignature) call.getSignature()).getMethod();
+        Meters meters = this.meters.computeIfAbsent(method, key -> Meters.of(registry, name, layer, call));
+        long start = System.nanoTime();
+        try {
+            Object result = call.proceed();
+            meters.success.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (meters.rows != null) {
+                meters.rows.record(rows(result));
+            }
+            return result;
+        } catch (Throwable e) {
+            meters.error.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (isBusy(e)) {
+                registry.counter(name + ".busy", layer, meters.owner, "method", meters.method).increment();
+            }
+            throw e;
+        }
+    }
+
+    private static int rows(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 0;
+    }
+
+    // Primary code 5 also covers the extended SQLITE_BUSY_* codes
+    static boolean isBusy(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLiteException sqlite
+                    && (sqlite.getResultCode().code & 0xff) == SQLiteErrorCode.SQLITE_BUSY.code) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Meters(String owner, String method, Timer success, Timer error, DistributionSummary rows) {
+
+        static Meters of(MeterRegistry registry, String name, String layer, ProceedingJoinPoint call) {
+            String owner = call.getTarget().getClass().getSimpleName();
+            String method = call.getSignature().getName();
+            DistributionSummary rows = "repository".equals(layer) && method.startsWith("find")
+                    ? DistributionSummary.builder(name + ".rows").tag(layer, owner).tag("method", method)
+                            .baseUnit("rows").register(registry)
+                    : null;
+            return new Meters(owner, method,
+                    timer(registry, name, layer, owner, method, "success"),
+                    timer(registry, name, layer, owner, method, "error"),
+                    rows);
+        }
+
+        private static Timer timer(MeterRegistry registry, String name, String layer, String owner, String method,
+                                   String outcome) {
+            return Timer.builder(name).tag(layer, owner).tag("method", method).tag("outcome", outcome)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package dev.jleenksystem.todolist.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * One online backup and its progress. Updated by the backup thread, read by anyone.
+ */
+public class BackupJob {
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final long id;
+    private final String file;
+    private final Instant startedAt;
+    private final long started = System.nanoTime();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile int pagesTotal;
+    private volatile int pagesRemaining;
+    private volatile long durationNanos = -1;
+    private volatile long sizeBytes;
+    private volatile String error;
+
+    public BackupJob(long id, String file) {
+        this.id = id;
+        this.file = file;
+        this.startedAt = Instant.now();
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getStatus() {
+        return status.name().toLowerCase(Locale.ROOT);
+    }
+
+    // Name of the snapshot in todos.backup.directory
+    public String getFile() {
+        return file;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    // Up to now while running
+    public long getDurationMillis() {
+        long nanos = durationNanos >= 0 ? durationNanos : System.nanoTime() - started;
+        return Duration.ofNanos(nanos).toMillis();
+    }
+
+    public int getPagesTotal() {
+        return pagesTotal;
+    }
+
+    public int getPagesCopied() {
+        return pagesTotal - pagesRemaining;
+    }
+
+    // Percent of pages copied, 0 until the first step
+    public int getProgress() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        return pagesTotal == 0 ? 0 : (int) (100L * getPagesCopied() / pagesTotal);
+    }
+
+    // Size of the snapshot once completed
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void progress(int remaining, int total) {
+        this.pagesTotal = total;
+        this.pagesRemaining = remaining;
+    }
+
+    public void complete(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+        this.pagesRemaining = 0;
+        finish(Status.COMPLETED);
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        finish(Status.FAILED);
+    }
+
+    private void finish(Status status) {
+        this.durationNanos = System.nanoTime() - started;
+        this.status = status;
+    }
+}
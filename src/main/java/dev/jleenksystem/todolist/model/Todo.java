@@ -5,6 +5,9 @@ public class Todo {
     private String description;
     private boolean completed;
 
+    // Incremented on every update, used for optimistic concurrency
+    private long version;
+
     public Todo() {
     }
 
@@ -14,6 +17,11 @@ public class Todo {
         this.completed = completed;
     }
 
+    public Todo(Long id, String description, boolean completed, long version) {
+        this(id, description, completed);
+        this.version = version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -37,4 +45,12 @@ public class Todo {
     public void setCompleted(boolean completed) {
         this.completed = completed;
     }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
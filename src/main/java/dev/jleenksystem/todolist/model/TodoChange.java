@@ -0,0 +1,41 @@
+package dev.jleenksystem.todolist.model;
+
+/**
+ * One entry of the change feed: a write to a todo, numbered in commit order.
+ */
+public class TodoChange {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final long seq;
+    private final long todoId;
+    private final Type type;
+
+    // Current state of the todo, null when it has been deleted since
+    private final Todo todo;
+
+    public TodoChange(long seq, long todoId, Type type, Todo todo) {
+        this.seq = seq;
+        this.todoId = todoId;
+        this.type = type;
+        this.todo = todo;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public long getTodoId() {
+        return todoId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Todo getTodo() {
+        return todo;
+    }
+}
@@ -0,0 +1,36 @@
+package dev.jleenksystem.todolist.model;
+
+/**
+ * Criteria and order of a todo listing, null criteria match everything.
+ */
+public class TodoFilter {
+    public static final TodoFilter NONE = new TodoFilter(null, null, false);
+
+    private final Boolean completed;
+    private final String descriptionPrefix;
+    private final boolean descending;
+
+    public TodoFilter(Boolean completed, String descriptionPrefix, boolean descending) {
+        this.completed = completed;
+        this.descriptionPrefix = descriptionPrefix == null || descriptionPrefix.isEmpty() ? null : descriptionPrefix;
+        this.descending = descending;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public String getDescriptionPrefix() {
+        return descriptionPrefix;
+    }
+
+    // Orders by id, newest first when descending
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public boolean matches(Todo todo) {
+        return (completed == null || completed == todo.isCompleted())
+                && (descriptionPrefix == null || todo.getDescription().startsWith(descriptionPrefix));
+    }
+}
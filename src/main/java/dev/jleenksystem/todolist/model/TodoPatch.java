@@ -0,0 +1,28 @@
+package dev.jleenksystem.todolist.model;
+
+/**
+ * Partial update of a todo, null fields are left unchanged.
+ */
+public class TodoPatch {
+    private final Long id;
+    private final String description;
+    private final Boolean completed;
+
+    public TodoPatch(Long id, String description, Boolean completed) {
+        this.id = id;
+        this.description = description;
+        this.completed = completed;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+}
@@ -0,0 +1,31 @@
+package dev.jleenksystem.todolist.model;
+
+/**
+ * Table-wide counts, read from counters kept up to date on every write rather than counted.
+ */
+public class TodoStats {
+    private final long total;
+    private final long completed;
+
+    public TodoStats(long total, long completed) {
+        this.total = total;
+        this.completed = completed;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getCompleted() {
+        return completed;
+    }
+
+    public long getOpen() {
+        return total - completed;
+    }
+
+    // Counts after a write that changed the number of rows and completed rows by the given amounts
+    public TodoStats plus(long totalDelta, long completedDelta) {
+        return new TodoStats(total + totalDelta, completed + completedDelta);
+    }
+}
@@ -0,0 +1,31 @@
+package dev.jleenksystem.todolist.ratelimit;
+
+import org.springframework.stereotype.Component;
+
+import dev.jleenksystem.todolist.config.RateLimitProperties;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identifies the client behind a request, by its remote address unless
+ * {@code todos.rate-limit.client-id-header} names a header set by a trusted gateway.
+ * A client can send any header it likes, so one is only honoured when configured.
+ */
+@Component
+public class ClientIdResolver {
+    private final RateLimitProperties properties;
+
+    public ClientIdResolver(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String name = properties.getClientIdHeader();
+        if (name != null && !name.isBlank()) {
+            String header = request.getHeader(name);
+            if (header != null && !header.isBlank()) {
+                return header;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,76 @@
+package dev.jleenksystem.todolist.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.jleenksystem.todolist.config.RateLimitProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Token bucket per client, {@code burst} tokens refilled at {@code requests-per-second}.
+ *
+ * <p>Each bucket is a single AtomicLong holding the time at which it will be full again
+ * (the generic cell rate algorithm), so taking a token is one compare-and-set and never
+ * locks. Buckets live in a Caffeine map, whose reads do not lock either. A bucket is
+ * dropped after it has been idle long enough to refill, when a fresh one is equivalent.
+ */
+@Component
+public class ClientRateLimiter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier clock;
+
+    // Time to earn one token, and the most a bucket may be behind now before it is empty
+    private final long interval;
+    private final long window;
+
+    @Autowired
+    public ClientRateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this(properties, registry, System::nanoTime);
+    }
+
+    ClientRateLimiter(RateLimitProperties properties, MeterRegistry registry, LongSupplier clock) {
+        this.clock = clock;
+        this.interval = (long) (NANOS_PER_SECOND / properties.getRequestsPerSecond());
+        this.window = interval * properties.getBurst();
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofNanos(Math.max(window, NANOS_PER_SECOND)))
+                .build();
+
+        Gauge.builder("todos.ratelimit.clients", buckets, Cache::estimatedSize)
+                .description("Clients with a rate limit bucket")
+                .register(registry);
+    }
+
+    /**
+     * Takes a token from the client's bucket. Returns 0 if one was taken, otherwise the
+     * nanoseconds until the next token is available.
+     */
+    public long tryAcquire(String client) {
+        // A new bucket is full from now on
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(clock.getAsLong()));
+        long now = clock.getAsLong();
+        while (true) {
+            long full = bucket.get();
+            // A bucket full before now stays full, unused tokens do not accumulate past burst
+            long next = Math.max(full - now, 0) + now + interval;
+            if (next - now > window) {
+                return next - now - window;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package dev.jleenksystem.todolist.ratelimit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import dev.jleenksystem.todolist.config.LoadSheddingProperties;
+import dev.jleenksystem.todolist.service.TodoWriteQueue;
+
+/**
+ * Tells when the database is behind, from the requests already waiting on it: threads
+ * waiting for a pooled connection, and mutations waiting in the write queue. Both are
+ * counters read without locking, so the check is cheap enough for every request. Once
+ * a backlog has built up, every request let in only waits longer, so new ones are
+ * turned away until the backlog drains below the threshold.
+ *
+ * <p>Reads and mutations wait on different things, so each is only turned away for its own
+ * backlog: reads for the reader pool, mutations for the writer and the write queue. A burst
+ * of writes queued on the single writer connection leaves reads served.
+ */
+@Component
+public class LoadShedder {
+    private final LoadSheddingProperties properties;
+    private final HikariDataSource readPool;
+    private final HikariDataSource writePool;
+    private final TodoWriteQueue writes;
+
+    public LoadShedder(LoadSheddingProperties properties,
+                       @Qualifier("readDataSource") HikariDataSource readPool,
+                       @Qualifier("writeDataSource") HikariDataSource writePool,
+                       TodoWriteQueue writes) {
+        this.properties = properties;
+        this.readPool = readPool;
+        this.writePool = writePool;
+        this.writes = writes;
+    }
+
+    public boolean isOverloaded(boolean mutation) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        if (mutation) {
+            return waiters(writePool) > properties.getMaxPoolWaiters()
+                    || writes.depth() > properties.getMaxWriteQueueDepth();
+        }
+        return waiters(readPool) > properties.getMaxPoolWaiters();
+    }
+
+    // The pool is started on its first connection, nobody waits before that
+    private static int waiters(HikariDataSource pool) {
+        HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+        return bean != null ? bean.getThreadsAwaitingConnection() : 0;
+    }
+}
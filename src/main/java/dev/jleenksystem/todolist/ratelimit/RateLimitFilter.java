@@ -0,0 +1,110 @@
+package dev.jleenksystem.todolist.ratelimit;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jleenksystem.todolist.config.LoadSheddingProperties;
+import dev.jleenksystem.todolist.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Guards {@code /todos} before a request reaches the controller or the database. An
+ * overloaded database gets 503, a client over its rate limit gets 429, both with
+ * Retry-After. Rejections are counted as {@code todos.ratelimit.rejected}, tagged with
+ * the reason.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final ClientRateLimiter limiter;
+    private final ClientIdResolver clients;
+    private final LoadShedder shedder;
+    private final RateLimitProperties properties;
+    private final LoadSheddingProperties sheddingProperties;
+    private final ObjectMapper objectMapper;
+    private final Counter limited;
+    private final Counter shed;
+
+    public RateLimitFilter(ClientRateLimiter limiter, ClientIdResolver clients, LoadShedder shedder,
+                           RateLimitProperties properties, LoadSheddingProperties sheddingProperties,
+                           ObjectMapper objectMapper, MeterRegistry registry) {
+        this.limiter = limiter;
+        this.clients = clients;
+        this.shedder = shedder;
+        this.properties = properties;
+        this.sheddingProperties = sheddingProperties;
+        this.objectMapper = objectMapper;
+        this.limited = Counter.builder("todos.ratelimit.rejected")
+                .description("Requests turned away before reaching the API")
+                .tag("reason", "rate_limited")
+                .register(registry);
+        this.shed = Counter.builder("todos.ratelimit.rejected")
+                .description("Requests turned away before reaching the API")
+                .tag("reason", "overloaded")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/todos");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Checked first, so a request turned away for load does not use up the client's tokens
+        if (shedder.isOverloaded(isMutation(request))) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, sheddingProperties.getRetryAfter().toSeconds(),
+                    "Server is overloaded, retry later");
+            return;
+        }
+        if (properties.isEnabled()) {
+            long wait = limiter.tryAcquire(clients.resolve(request));
+            if (wait > 0) {
+                limited.increment();
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, secondsRoundedUp(wait), "Rate limit exceeded, retry later");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // Every read on /todos is a GET, everything else writes
+    private static boolean isMutation(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+
+    // Retry-After is in whole seconds, a client waiting exactly that long must not come back early
+    private static long secondsRoundedUp(long nanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return (nanos + second - 1) / second;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, retryAfterSeconds)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "timestamp", LocalDateTime.now().toString(),
+                "error", status.getReasonPhrase(),
+                "message", message));
+    }
+}
@@ -0,0 +1,54 @@
+package dev.jleenksystem.todolist.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import dev.jleenksystem.todolist.model.Todo;
+
+/**
+ * Idempotency keys in idempotency_keys, each with the todo as it was created, so a
+ * retry gets the original response even if the todo changed or was deleted since.
+ * A key belongs to the client that sent it, other clients may use the same key.
+ */
+@Repository
+public class IdempotencyKeyRepository {
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate readJdbc;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbc, @Qualifier("readJdbcTemplate") JdbcTemplate readJdbc) {
+        this.jdbc = jdbc;
+        this.readJdbc = readJdbc;
+    }
+
+    private final RowMapper<Todo> mapper = (rs, rowNum) -> new Todo(
+            rs.getLong("todo_id"),
+            rs.getString("description"),
+            rs.getInt("completed") != 0,
+            rs.getLong("version"));
+
+    // The todo the client created with the key, if the key was stored at or after the given time
+    public Optional<Todo> find(String client, String key, long storedSince) {
+        List<Todo> todos = readJdbc.query("""
+                SELECT todo_id, description, completed, version FROM idempotency_keys
+                WHERE client = ? AND key = ? AND created_at >= ?""", mapper, client, key, storedSince);
+        return todos.stream().findFirst();
+    }
+
+    // Replaces an expired row for the same key that was not purged yet
+    public void save(String client, String key, Todo todo, long createdAt) {
+        jdbc.update("""
+                INSERT OR REPLACE INTO idempotency_keys (client, key, todo_id, description, completed, version, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?)""",
+                client, key, todo.getId(), todo.getDescription(), todo.isCompleted() ? 1 : 0, todo.getVersion(), createdAt);
+    }
+
+    // Deletes keys stored before the given time, returns the number of rows deleted
+    public int purge(long storedBefore) {
+        return jdbc.update("DELETE FROM idempotency_keys WHERE created_at < ?", storedBefore);
+    }
+}
@@ -0,0 +1,344 @@
+package dev.jleenksystem.todolist.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.jleenksystem.todolist.config.EngineProperties;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoPatch;
+import dev.jleenksystem.todolist.model.TodoStats;
+
+/**
+ * Keeps every todo in memory and persists changes to SQLite behind the caller's back.
+ *
+ * <p>The table is loaded with one scan at startup. Reads never touch the database,
+ * except full-text searches, which read the FTS index of the rows already flushed.
+ * Writes update memory and mark the id dirty, a background flush writes the current
+ * state of all dirty ids in one transaction every {@code todos.engine.flush-interval}.
+ * A write is therefore durable at most one flush interval after it was acknowledged,
+ * writes made since the last flush are lost if the process dies. Pending writes are
+ * flushed on shutdown.
+ *
+ * <p>Reads are lock-free. Writes are serialized on one lock so batch operations apply
+ * all or nothing, as they do in a transaction on the JDBC engine.
+ */
+@Repository
+@Primary
+@DependsOn("databaseConfig")
+@ConditionalOnProperty(name = "todos.engine.type", havingValue = "memory")
+public class InMemoryTodoRepository implements TodoRepository, SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(InMemoryTodoRepository.class);
+
+    // The order of JdbcTodoRepository.search: shortest description first, then newest
+    private static final Comparator<Todo> SEARCH_ORDER = Comparator
+            .comparingInt((Todo todo) -> todo.getDescription().codePointCount(0, todo.getDescription().length()))
+            .thenComparing(Todo::getId, Comparator.reverseOrder());
+
+    private final JdbcTodoRepository store;
+    private final TransactionTemplate flushTx;
+    private final EngineProperties properties;
+
+    // Ordered by id, so pages and streams need no sorting. Values are never mutated once stored
+    private final ConcurrentSkipListMap<Long, Todo> todos = new ConcurrentSkipListMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+    private final Object writeLock = new Object();
+
+    // Replaced as a whole under the write lock, so a reader never sees total and completed from different writes
+    private volatile TodoStats stats;
+
+    @Value("${todos.list.max-size:1000}")
+    private int maxListSize = 1000;
+
+    private ScheduledExecutorService flusher;
+
+    public InMemoryTodoRepository(JdbcTodoRepository store, PlatformTransactionManager transactionManager,
+                                  EngineProperties properties) {
+        this.store = store;
+        this.flushTx = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+
+        store.streamAll(todo -> todos.put(todo.getId(), todo));
+        sequence.set(store.lastId());
+        changes.set(store.changeCount());
+        stats = new TodoStats(todos.size(), todos.values().stream().filter(Todo::isCompleted).count());
+        log.info("Loaded {} todos into memory", todos.size());
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        return todos.values().stream().limit(maxListSize).map(InMemoryTodoRepository::copy).toList();
+    }
+
+    @Override
+    public List<Todo> findPage(TodoFilter filter, Long afterId, int limit) {
+        NavigableMap<Long, Todo> range;
+        if (filter.isDescending()) {
+            range = afterId == null ? todos.descendingMap() : todos.headMap(afterId, false).descendingMap();
+        } else {
+            range = afterId == null ? todos : todos.tailMap(afterId, false);
+        }
+        return range.values().stream().filter(filter::matches).limit(limit).map(InMemoryTodoRepository::copy).toList();
+    }
+
+    @Override
+    public void streamAll(Consumer<Todo> action) {
+        todos.values().forEach(todo -> action.accept(copy(todo)));
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) {
+        return Optional.ofNullable(todos.get(id)).map(InMemoryTodoRepository::copy);
+    }
+
+    /**
+     * Matches come from two places and are ranked together as the JDBC engine ranks them.
+     * Flushed rows are looked up in the FTS index in SQLite, rows with writes pending are
+     * matched in memory, since the index still has their old text or none. Pending writes
+     * are not flushed for this, a search costs one read like any other on the JDBC engine.
+     */
+    @Override
+    public List<Todo> search(String query, int limit, int offset) {
+        SearchTerms terms = SearchTerms.parse(query);
+        if (terms == null) {
+            return List.of();
+        }
+        Set<Long> pending = Set.copyOf(dirty);
+        List<Todo> matches = new ArrayList<>();
+        // Enough indexed matches to fill the page after the pending ones are dropped
+        for (Todo indexed : store.search(query, offset + limit + pending.size(), 0)) {
+            // Read back from memory, a row written since the snapshot of pending may have changed
+            Todo current = pending.contains(indexed.getId()) ? null : todos.get(indexed.getId());
+            if (current != null) {
+                matches.add(current);
+            }
+        }
+        for (Long id : pending) {
+            Todo current = todos.get(id);
+            if (current != null && terms.matches(current.getDescription())) {
+                matches.add(current);
+            }
+        }
+        return matches.stream().sorted(SEARCH_ORDER).skip(offset).limit(limit)
+                .map(InMemoryTodoRepository::copy).toList();
+    }
+
+    @Override
+    public List<Todo> findAllById(List<Long> ids) {
+        return ids.stream().sorted().distinct().map(todos::get).filter(Objects::nonNull)
+                .map(InMemoryTodoRepository::copy).toList();
+    }
+
+    @Override
+    public Todo save(Todo todo) {
+        synchronized (writeLock) {
+            todo.setId(sequence.incrementAndGet());
+            put(copy(todo));
+        }
+        return todo;
+    }
+
+    @Override
+    public List<Todo> saveAll(List<Todo> batch) {
+        synchronized (writeLock) {
+            for (Todo todo : batch) {
+                todo.setId(sequence.incrementAndGet());
+                put(copy(todo));
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public int update(Long id, Todo todo) {
+        synchronized (writeLock) {
+            if (!todos.containsKey(id)) {
+                return 0;
+            }
+            put(new Todo(id, todo.getDescription(), todo.isCompleted(), todos.get(id).getVersion() + 1));
+            return 1;
+        }
+    }
+
+    @Override
+    public Optional<Todo> patch(TodoPatch patch, Set<Long> expectedVersions) {
+        synchronized (writeLock) {
+            Todo current = todos.get(patch.getId());
+            if (current == null || (expectedVersions != null && !expectedVersions.contains(current.getVersion()))) {
+                return Optional.empty();
+            }
+            Todo updated = apply(current, patch);
+            put(updated);
+            return Optional.of(copy(updated));
+        }
+    }
+
+    @Override
+    public List<Long> patchAll(List<TodoPatch> patches) {
+        synchronized (writeLock) {
+            List<Long> missing = patches.stream().map(TodoPatch::getId).filter(id -> !todos.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                return missing;
+            }
+            for (TodoPatch patch : patches) {
+                put(apply(todos.get(patch.getId()), patch));
+            }
+            return missing;
+        }
+    }
+
+    @Override
+    public int delete(Long id) {
+        synchronized (writeLock) {
+            if (!todos.containsKey(id)) {
+                return 0;
+            }
+            remove(id);
+            return 1;
+        }
+    }
+
+    @Override
+    public List<Long> deleteAll(List<Long> ids) {
+        synchronized (writeLock) {
+            List<Long> missing = ids.stream().filter(id -> !todos.containsKey(id)).toList();
+            if (!missing.isEmpty()) {
+                return missing;
+            }
+            ids.forEach(this::remove);
+            return missing;
+        }
+    }
+
+    // Memory first, then the dirty mark, so a flush never misses the newest state
+    private void put(Todo todo) {
+        Todo previous = todos.put(todo.getId(), todo);
+        dirty.add(todo.getId());
+        changes.incrementAndGet();
+        stats = stats.plus(previous == null ? 1 : 0, completedCount(todo) - completedCount(previous));
+    }
+
+    private void remove(Long id) {
+        Todo removed = todos.remove(id);
+        dirty.add(id);
+        changes.incrementAndGet();
+        stats = stats.plus(-1, -completedCount(removed));
+    }
+
+    private static int completedCount(Todo todo) {
+        return todo != null && todo.isCompleted() ? 1 : 0;
+    }
+
+    @Override
+    public long changeCount() {
+        return changes.get();
+    }
+
+    @Override
+    public TodoStats stats() {
+        return stats;
+    }
+
+    /**
+     * Writes the current state of every dirty id to SQLite in one transaction.
+     */
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        long changeCount = changes.get();
+        List<Long> ids = new ArrayList<>();
+        List<Todo> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        for (Long id : dirty) {
+            // Unmark before reading, a write racing with the flush marks the id again
+            dirty.remove(id);
+            ids.add(id);
+            Todo todo = todos.get(id);
+            if (todo != null) {
+                upserts.add(todo);
+            } else {
+                deletes.add(id);
+            }
+        }
+
+        try {
+            flushTx.executeWithoutResult(status -> {
+                if (!upserts.isEmpty()) {
+                    store.upsertAll(upserts);
+                }
+                if (!deletes.isEmpty()) {
+                    store.deleteAll(deletes);
+                }
+                // Coalesced writes bump the stored counter less than memory did, keep it from reusing values after a restart
+                store.raiseChangeCount(changeCount);
+            });
+        } catch (RuntimeException e) {
+            // Retried on the next flush
+            dirty.addAll(ids);
+            log.error("Flushing {} todos to SQLite failed", ids.size(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        long interval = properties.getFlushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("todo-flusher").daemon().factory());
+        flusher.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return flusher != null;
+    }
+
+    private static Todo apply(Todo current, TodoPatch patch) {
+        return new Todo(current.getId(),
+                patch.getDescription() != null ? patch.getDescription() : current.getDescription(),
+                patch.getCompleted() != null ? patch.getCompleted() : current.isCompleted(),
+                current.getVersion() + 1);
+    }
+
+    private static Todo copy(Todo todo) {
+        return new Todo(todo.getId(), todo.getDescription(), todo.isCompleted(), todo.getVersion());
+    }
+}
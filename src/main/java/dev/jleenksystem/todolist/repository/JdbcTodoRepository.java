@@ -0,0 +1,373 @@
+package dev.jleenksystem.todolist.repository;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoPatch;
+import dev.jleenksystem.todolist.model.TodoStats;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@Repository
+public class JdbcTodoRepository implements TodoRepository {
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate readJdbc;
+    private final TodoCache cache;
+
+    // Hard cap for the unpaginated findAll, larger result sets must be paged
+    @Value("${todos.list.max-size:1000}")
+    private int maxListSize = 1000;
+
+    // Rows per read while streaming, the reader connection is returned between chunks
+    @Value("${todos.stream.chunk-size:500}")
+    private int streamChunkSize = 500;
+
+    // Matches ranked per search, broader queries are ranked among their newest matches only
+    @Value("${todos.search.max-candidates:1000}")
+    private int maxSearchCandidates = 1000;
+
+    public JdbcTodoRepository(JdbcTemplate jdbc, @Qualifier("readJdbcTemplate") JdbcTemplate readJdbc, TodoCache cache) {
+        this.jdbc = jdbc;
+        this.readJdbc = readJdbc;
+        this.cache = cache;
+    }
+
+    // Reads go to the reader pool, except inside a transaction where they must see its uncommitted writes
+    private JdbcTemplate reader() {
+        return TransactionSynchronizationManager.isActualTransactionActive() ? jdbc : readJdbc;
+    }
+
+    private final RowMapper<Todo> mapper = (rs, rowNum) -> mapTodo(rs);
+
+    private Todo mapTodo(ResultSet rs) throws SQLException {
+        return new Todo(
+                rs.getLong("id"),
+                rs.getString("description"),
+                rs.getInt("completed") != 0,
+                rs.getLong("version"));
+    }
+
+    @Override
+    public List<Todo> findAll() {
+        return reader().query("SELECT id, description, completed, version FROM todos ORDER BY id LIMIT ?", mapper, maxListSize);
+    }
+
+    /**
+     * Keyset page: seeks on the rowid primary key instead of scanning with OFFSET.
+     * {@code completed} is served by the (completed, id) index and the partial index
+     * on open todos, a description prefix by a range scan on the description index.
+     */
+    @Override
+    public List<Todo> findPage(TodoFilter filter, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (filter.getCompleted() != null) {
+            // A literal rather than a parameter, so the planner can match the partial index on completed = 0
+            conditions.add(filter.getCompleted() ? "completed = 1" : "completed = 0");
+        }
+        if (filter.getDescriptionPrefix() != null) {
+            conditions.add("description >= ?");
+            args.add(filter.getDescriptionPrefix());
+            String upperBound = prefixUpperBound(filter.getDescriptionPrefix());
+            if (upperBound != null) {
+                conditions.add("description < ?");
+                args.add(upperBound);
+            }
+        }
+        if (afterId != null) {
+            conditions.add(filter.isDescending() ? "id < ?" : "id > ?");
+            args.add(afterId);
+        }
+        args.add(limit);
+
+        String sql = "SELECT id, description, completed, version FROM todos"
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + (filter.isDescending() ? " ORDER BY id DESC" : " ORDER BY id")
+                + " LIMIT ?";
+        return reader().query(sql, mapper, args.toArray());
+    }
+
+    /**
+     * Smallest string greater than every string starting with the prefix, under SQLite's
+     * BINARY collation. That compares UTF-8 bytes, which sort like code points, so the
+     * last code point is incremented. Null when the prefix has no upper bound.
+     */
+    static String prefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int last = prefix.codePointBefore(end);
+            int start = end - Character.charCount(last);
+            if (last < Character.MAX_CODE_POINT) {
+                int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+                return prefix.substring(0, start) + Character.toString(next);
+            }
+            end = start;
+        }
+        return null;
+    }
+
+    /**
+     * Reads keyset chunks of {@code todos.stream.chunk-size} rows and hands each chunk to the
+     * consumer after its read has finished. A slow consumer, such as a client downloading an
+     * export, therefore holds neither a reader connection nor a WAL snapshot between chunks.
+     * Each chunk sees the rows as they are when it is read, not as they were at the start.
+     */
+    @Override
+    public void streamAll(Consumer<Todo> action) {
+        long afterId = 0;
+        List<Todo> chunk;
+        do {
+            chunk = reader().query("SELECT id, description, completed, version FROM todos WHERE id > ? ORDER BY id LIMIT ?",
+                    mapper, afterId, streamChunkSize);
+            chunk.forEach(action);
+            if (!chunk.isEmpty()) {
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+        } while (chunk.size() == streamChunkSize);
+    }
+
+    @Override
+    public Optional<Todo> findById(Long id) {
+        // Inside a transaction the row may be uncommitted, so it must not end up in the cache
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loadById(id);
+        }
+        return cache.get(id, this::loadById);
+    }
+
+    private Optional<Todo> loadById(Long id) {
+        List<Todo> rows = reader().query("SELECT id, description, completed, version FROM todos WHERE id = ?", mapper, id);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * Takes the newest {@code todos.search.max-candidates} matches and ranks them, shortest
+     * description first. With every word required and short descriptions that rarely repeat
+     * a word, that is the order bm25 gives, but FTS5's bm25 counts every row containing each
+     * word to weight it, which costs tens of milliseconds per common word at a million rows.
+     * Here the cost is bounded by the candidate count.
+     */
+    @Override
+    public List<Todo> search(String query, int limit, int offset) {
+        String match = matchExpression(query);
+        if (match == null) {
+            return List.of();
+        }
+        return reader().query("SELECT t.id, t.description, t.completed, t.version FROM "
+                        + "(SELECT rowid FROM todos_fts WHERE todos_fts MATCH ? ORDER BY rowid DESC LIMIT ?) f "
+                        + "JOIN todos t ON t.id = f.rowid ORDER BY length(t.description), t.id DESC LIMIT ? OFFSET ?",
+                mapper, match, maxSearchCandidates, limit, offset);
+    }
+
+    /**
+     * Turns user input into an FTS5 query that matches every word. Each word is quoted,
+     * so operators and punctuation are taken literally, and a trailing {@code *} makes
+     * it a prefix match. Single-character prefixes match the word itself instead, as
+     * they would expand to a large share of the vocabulary. Null when no word is left.
+     */
+    static String matchExpression(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            String term = word.replaceAll("\\*+$", "");
+            boolean prefix = term.length() > 1 && term.length() < word.length();
+            if (!term.isEmpty()) {
+                terms.add('"' + term.replace("\"", "\"\"") + '"' + (prefix ? "*" : ""));
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" ", terms);
+    }
+
+    // RETURNING reads the id back on the same statement, no second query on a possibly different connection
+    @Override
+    public Todo save(Todo todo) {
+        Long id = jdbc.queryForObject("INSERT INTO todos (description, completed) VALUES (?, ?) RETURNING id",
+                Long.class, todo.getDescription(), todo.isCompleted() ? 1 : 0);
+        todo.setId(id);
+        // Replaces a cached miss for this id
+        cache.invalidate(id);
+        return todo;
+    }
+
+    // One prepared statement executed as a JDBC batch inside a single transaction
+    @Override
+    @Transactional
+    public List<Todo> saveAll(List<Todo> todos) {
+        if (todos.isEmpty()) {
+            return todos;
+        }
+        jdbc.batchUpdate("INSERT INTO todos (description, completed) VALUES (?, ?)", todos, todos.size(),
+                (ps, todo) -> {
+                    ps.setString(1, todo.getDescription());
+                    ps.setInt(2, todo.isCompleted() ? 1 : 0);
+                });
+
+        // The transaction holds the SQLite write lock, so the batch got consecutive rowids ending at the last one
+        long id = jdbc.queryForObject("SELECT last_insert_rowid()", Long.class) - todos.size();
+        for (Todo todo : todos) {
+            todo.setId(++id);
+            cache.invalidate(todo.getId());
+        }
+        return todos;
+    }
+
+    @Override
+    public List<Todo> findAllById(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return reader().query("SELECT id, description, completed, version FROM todos WHERE id IN (" + placeholders + ") ORDER BY id",
+                mapper, ids.toArray());
+    }
+
+    // Returns the ids that matched no row, the caller decides whether that rolls the batch back
+    @Override
+    @Transactional
+    public List<Long> patchAll(List<TodoPatch> patches) {
+        int[][] counts = jdbc.batchUpdate(
+                """
+                UPDATE todos SET description = COALESCE(?, description), completed = COALESCE(?, completed),
+                                 version = version + 1
+                WHERE id = ?""",
+                patches, patches.size(),
+                (ps, patch) -> {
+                    ps.setString(1, patch.getDescription());
+                    setCompleted(ps, 2, patch.getCompleted());
+                    ps.setLong(3, patch.getId());
+                });
+        patches.forEach(patch -> cache.invalidate(patch.getId()));
+        return missing(patches.stream().map(TodoPatch::getId).toList(), counts);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> deleteAll(List<Long> ids) {
+        int[][] counts = jdbc.batchUpdate("DELETE FROM todos WHERE id = ?", ids, ids.size(),
+                (ps, id) -> ps.setLong(1, id));
+        cache.invalidateAll(ids);
+        return missing(ids, counts);
+    }
+
+    // Writes rows with their ids as given, used to persist state owned by the in-memory engine
+    @Transactional
+    public void upsertAll(List<Todo> todos) {
+        jdbc.batchUpdate("""
+                INSERT INTO todos (id, description, completed, version) VALUES (?, ?, ?, ?)
+                ON CONFLICT (id) DO UPDATE SET description = excluded.description, completed = excluded.completed,
+                                               version = excluded.version""",
+                todos, todos.size(),
+                (ps, todo) -> {
+                    ps.setLong(1, todo.getId());
+                    ps.setString(2, todo.getDescription());
+                    ps.setInt(3, todo.isCompleted() ? 1 : 0);
+                    ps.setLong(4, todo.getVersion());
+                });
+        todos.forEach(todo -> cache.invalidate(todo.getId()));
+    }
+
+    // Maintained by the todos_meta triggers, so it also counts writes made outside this repository
+    @Override
+    public long changeCount() {
+        Long count = reader().queryForObject("SELECT change_count FROM todos_meta WHERE id = 1", Long.class);
+        return count != null ? count : 0L;
+    }
+
+    @Override
+    public TodoStats stats() {
+        return reader().queryForObject("SELECT total_count, completed_count FROM todos_meta WHERE id = 1",
+                (rs, rowNum) -> new TodoStats(rs.getLong("total_count"), rs.getLong("completed_count")));
+    }
+
+    // Moves the counter forward to at least the given value, never back
+    public void raiseChangeCount(long atLeast) {
+        jdbc.update("UPDATE todos_meta SET change_count = MAX(change_count, ?) WHERE id = 1", atLeast);
+    }
+
+    // Highest id ever handed out, deleted rows included
+    public long lastId() {
+        Long id = reader().queryForObject("""
+                SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'todos'), 0),
+                           COALESCE((SELECT MAX(id) FROM todos), 0))""", Long.class);
+        return id != null ? id : 0L;
+    }
+
+    // sqlite-jdbc cannot report parameter types, so nulls are bound explicitly instead of through JdbcTemplate
+    private static void setCompleted(PreparedStatement ps, int index, Boolean completed) throws SQLException {
+        if (completed != null) {
+            ps.setInt(index, completed ? 1 : 0);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static List<Long> missing(List<Long> ids, int[][] counts) {
+        int[] flat = Arrays.stream(counts).flatMapToInt(Arrays::stream).toArray();
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < flat.length; i++) {
+            if (flat[i] == 0) {
+                missing.add(ids.get(i));
+            }
+        }
+        return missing;
+    }
+
+    @Override
+    public int update(Long id, Todo todo) {
+        int rows = jdbc.update("UPDATE todos SET description = ?, completed = ?, version = version + 1 WHERE id = ?",
+                todo.getDescription(), todo.isCompleted() ? 1 : 0, id);
+        cache.invalidate(id);
+        return rows;
+    }
+
+    // Single statement, so concurrent patches of one id cannot overwrite each other's fields
+    @Override
+    public Optional<Todo> patch(TodoPatch patch, Set<Long> expectedVersions) {
+        if (expectedVersions != null && expectedVersions.isEmpty()) {
+            return Optional.empty();
+        }
+        String versionCondition = expectedVersions == null ? ""
+                : " AND version IN (" + String.join(", ", Collections.nCopies(expectedVersions.size(), "?")) + ")";
+        String sql = "UPDATE todos SET description = COALESCE(?, description), completed = COALESCE(?, completed),"
+                + " version = version + 1 WHERE id = ?" + versionCondition
+                + " RETURNING id, description, completed, version";
+        List<Todo> rows = jdbc.query(sql,
+                ps -> {
+                    ps.setString(1, patch.getDescription());
+                    setCompleted(ps, 2, patch.getCompleted());
+                    ps.setLong(3, patch.getId());
+                    if (expectedVersions != null) {
+                        int index = 4;
+                        for (Long version : expectedVersions) {
+                            ps.setLong(index++, version);
+                        }
+                    }
+                },
+                mapper);
+        cache.invalidate(patch.getId());
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    @Override
+    public int delete(Long id) {
+        int rows = jdbc.update("DELETE FROM todos WHERE id = ?", id);
+        cache.invalidate(id);
+        return rows;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,79 @@
+package dev.jleenksystem.todolist.repository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * A search query matched in Java the way the FTS index matches it, for rows the index
+ * has not seen yet. Text is split like FTS5's unicode61 tokenizer with remove_diacritics:
+ * runs of letters and digits, lowercased, accents dropped. Every word of the query has
+ * to match, a word of several tokens as a phrase, a trailing {@code *} as a prefix of the
+ * last token, as in {@link JdbcTodoRepository#matchExpression}.
+ */
+final class SearchTerms {
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final List<List<String>> phrases;
+    private final List<Boolean> prefixes;
+
+    private SearchTerms(List<List<String>> phrases, List<Boolean> prefixes) {
+        this.phrases = phrases;
+        this.prefixes = prefixes;
+    }
+
+    // Null when no word is left, the index matches nothing then
+    static SearchTerms parse(String query) {
+        List<List<String>> phrases = new ArrayList<>();
+        List<Boolean> prefixes = new ArrayList<>();
+        for (String word : query.trim().split("\\s+")) {
+            String term = word.replaceAll("\\*+$", "");
+            List<String> tokens = tokens(term);
+            if (!tokens.isEmpty()) {
+                phrases.add(tokens);
+                prefixes.add(term.length() > 1 && term.length() < word.length());
+            }
+        }
+        return phrases.isEmpty() ? null : new SearchTerms(phrases, prefixes);
+    }
+
+    boolean matches(String text) {
+        List<String> tokens = tokens(text);
+        for (int i = 0; i < phrases.size(); i++) {
+            if (!containsPhrase(tokens, phrases.get(i), prefixes.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsPhrase(List<String> tokens, List<String> phrase, boolean prefix) {
+        int last = phrase.size() - 1;
+        for (int start = 0; start + last < tokens.size(); start++) {
+            boolean match = true;
+            for (int i = 0; i <= last && match; i++) {
+                String token = tokens.get(start + i);
+                match = i == last && prefix ? token.startsWith(phrase.get(i)) : token.equals(phrase.get(i));
+            }
+            if (match) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static List<String> tokens(String text) {
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,106 @@
+package dev.jleenksystem.todolist.repository;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.jleenksystem.todolist.config.TodoCacheProperties;
+import dev.jleenksystem.todolist.model.Todo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded read-through cache of todos by id. Misses are cached as empty values,
+ * so repeated lookups of unknown ids do not reach SQLite either.
+ *
+ * <p>Entries are immutable snapshots, callers always get their own copy.
+ *
+ * <p>Loads run on the calling thread but outside the cache's map lock, so a
+ * virtual thread blocked on SQLite never holds a monitor that pins its carrier
+ * or stalls other lookups hashed to the same bin.
+ */
+@Component
+public class TodoCache {
+    private final AsyncCache<Long, Optional<Todo>> cache;
+
+    public TodoCache(TodoCacheProperties properties, MeterRegistry registry) {
+        if (properties.getMaxSize() <= 0) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        // Publishes cache.gets{result=hit|miss}, cache.evictions and cache.size
+        CaffeineCacheMetrics.monitor(registry, cache, "todos");
+    }
+
+    public Optional<Todo> get(Long id, Function<Long, Optional<Todo>> loader) {
+        if (cache == null) {
+            return loader.apply(id);
+        }
+        // Concurrent misses on one id share a single load, run by whichever caller installed the future
+        CompletableFuture<Optional<Todo>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<Todo>> entry = cache.get(id, (key, executor) -> load);
+        if (entry == load) {
+            try {
+                load.complete(loader.apply(id));
+            } catch (RuntimeException e) {
+                // Failed futures are dropped from the cache, so the next lookup retries
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entry.join().map(TodoCache::copy);
+        } catch (CompletionException e) {
+            // Callers that waited on another thread's load see the same exception it did
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drops the entry now and, inside a transaction, once more after it completes,
+     * so a reader cannot re-cache the row as it was before the commit.
+     */
+    public void invalidate(Long id) {
+        if (cache == null) {
+            return;
+        }
+        cache.synchronous().invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        ids.forEach(this::invalidate);
+    }
+
+    // For writes that bypass the repository, such as scripts run directly against the database
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.synchronous().invalidateAll();
+        }
+    }
+
+    private static Todo copy(Todo todo) {
+        return new Todo(todo.getId(), todo.getDescription(), todo.isCompleted(), todo.getVersion());
+    }
+}
@@ -0,0 +1,64 @@
+package dev.jleenksystem.todolist.repository;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoChange;
+
+/**
+ * The change log in todo_changes. Rows are written by triggers on todos, created in
+ * DatabaseConfig, so every write is logged in its own transaction whichever engine
+ * made it. With the memory engine writes show up once they are flushed.
+ */
+@Repository
+public class TodoChangeRepository {
+    private final JdbcTemplate jdbc;
+    private final JdbcTemplate readJdbc;
+
+    public TodoChangeRepository(JdbcTemplate jdbc, @Qualifier("readJdbcTemplate") JdbcTemplate readJdbc) {
+        this.jdbc = jdbc;
+        this.readJdbc = readJdbc;
+    }
+
+    private final RowMapper<TodoChange> mapper = (rs, rowNum) -> {
+        Todo todo = rs.getObject("id") == null ? null : new Todo(
+                rs.getLong("id"),
+                rs.getString("description"),
+                rs.getInt("completed") != 0,
+                rs.getLong("version"));
+        return new TodoChange(rs.getLong("seq"), rs.getLong("todo_id"),
+                TodoChange.Type.valueOf(rs.getString("type").toUpperCase(Locale.ROOT)), todo);
+    };
+
+    // Changes after the given sequence number in order, each with the current state of its todo
+    public List<TodoChange> findAfter(long seq, int limit) {
+        return readJdbc.query("""
+                SELECT c.seq, c.todo_id, c.type, t.id, t.description, t.completed, t.version
+                FROM todo_changes c LEFT JOIN todos t ON t.id = c.todo_id
+                WHERE c.seq > ? ORDER BY c.seq LIMIT ?""", mapper, seq, limit);
+    }
+
+    // Highest sequence number handed out, 0 before the first change. Purged rows included
+    public long lastSeq() {
+        List<Long> seq = readJdbc.queryForList(
+                "SELECT seq FROM sqlite_sequence WHERE name = 'todo_changes'", Long.class);
+        return seq.isEmpty() ? 0L : seq.get(0);
+    }
+
+    // Oldest change still in the log, lastSeq + 1 when the log is empty
+    public long firstSeq() {
+        Long first = readJdbc.queryForObject("SELECT MIN(seq) FROM todo_changes", Long.class);
+        return first != null ? first : lastSeq() + 1;
+    }
+
+    // Deletes all but the newest changes, returns the number of rows deleted
+    public int purge(long retained) {
+        return jdbc.update("DELETE FROM todo_changes WHERE seq <= (SELECT MAX(seq) FROM todo_changes) - ?", retained);
+    }
+}
@@ -1,61 +1,63 @@
 package dev.jleenksystem.todolist.repository;
 
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.core.RowMapper;
-import org.springframework.stereotype.Repository;
-
 import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoPatch;
+import dev.jleenksystem.todolist.model.TodoStats;
 
-import java.sql.ResultSet;
-import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Storage of todos. {@link JdbcTodoRepository} reads and writes SQLite directly,
+ * {@link InMemoryTodoRepository} serves everything from memory and persists to
+ * SQLite in the background. The engine is picked with {@code todos.engine.type}.
+ */
+public interface TodoRepository {
+
+    // At most todos.list.max-size rows, ordered by id
+    List<Todo> findAll();
+
+    // Rows matching the filter past afterId in the filter's id order, from the first row when afterId is null
+    List<Todo> findPage(TodoFilter filter, Long afterId, int limit);
+
+    // Visits every row in id order without collecting them
+    void streamAll(Consumer<Todo> action);
+
+    Optional<Todo> findById(Long id);
+
+    // Full-text matches on description, best ranked first
+    List<Todo> search(String query, int limit, int offset);
+
+    List<Todo> findAllById(List<Long> ids);
+
+    Todo save(Todo todo);
+
+    List<Todo> saveAll(List<Todo> todos);
+
+    int update(Long id, Todo todo);
+
+    /**
+     * Applies the non-null fields of the patch and bumps the version in one atomic step.
+     * With expected versions the update only happens if the row still has one of them, an
+     * empty set never matches. Returns the updated row, or empty if the id is unknown or the
+     * version did not match.
+     */
+    Optional<Todo> patch(TodoPatch patch, Set<Long> expectedVersions);
+
+    // Returns the ids that matched no todo
+    List<Long> patchAll(List<TodoPatch> patches);
+
+    int delete(Long id);
+
+    // Returns the ids that matched no todo
+    List<Long> deleteAll(List<Long> ids);
+
+    // Grows with every change to any todo, never goes back
+    long changeCount();
 
-@Repository
-public class TodoRepository {
-    private final JdbcTemplate jdbc;
-
-    public TodoRepository(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
-
-    private final RowMapper<Todo> mapper = (rs, rowNum) -> mapTodo(rs);
-
-    private Todo mapTodo(ResultSet rs) throws SQLException {
-        return new Todo(
-                rs.getLong("id"),
-                rs.getString("description"),
-                rs.getInt("completed") != 0);
-    }
-
-    public List<Todo> findAll() {
-        return jdbc.query("SELECT id, description, completed FROM todos", mapper);
-    }
-
-    public Optional<Todo> findById(Long id) {
-        try {
-            Todo t = jdbc.queryForObject("SELECT id, description, completed FROM todos WHERE id = ?", mapper, id);
-            return Optional.ofNullable(t);
-        } catch (EmptyResultDataAccessException e) {
-            return Optional.empty();
-        }
-    }
-
-    public Todo save(Todo todo) {
-        jdbc.update("INSERT INTO todos (description, completed) VALUES (?, ?)",
-                todo.getDescription(), todo.isCompleted() ? 1 : 0);
-        Long id = jdbc.queryForObject("SELECT last_insert_rowid()", Long.class);
-        todo.setId(id);
-        return todo;
-    }
-
-    public int update(Long id, Todo todo) {
-        return jdbc.update("UPDATE todos SET description = ?, completed = ? WHERE id = ?",
-                todo.getDescription(), todo.isCompleted() ? 1 : 0, id);
-    }
-
-    public int delete(Long id) {
-        return jdbc.update("DELETE FROM todos WHERE id = ?", id);
-    }
-}
\ No newline at end of file
+    // Row counts from counters maintained on every write, constant time however large the table
+    TodoStats stats();
+}
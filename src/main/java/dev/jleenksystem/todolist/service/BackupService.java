@@ -0,0 +1,263 @@
+package dev.jleenksystem.todolist.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.sqlite.SQLiteConnection;
+import org.sqlite.SQLiteErrorCode;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import dev.jleenksystem.todolist.config.BackupProperties;
+import dev.jleenksystem.todolist.exception.BackupInProgressException;
+import dev.jleenksystem.todolist.model.BackupJob;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Online snapshots of the database with SQLite's backup API, one at a time on a
+ * background thread.
+ *
+ * <p>The copy runs on a read pool connection inside a read transaction, so in WAL mode it
+ * sees one consistent snapshot from start to end while the writer carries on: commits made
+ * during the copy go to the WAL and neither block on it nor restart it. Pages are copied
+ * {@code pages-per-step} at a time with {@code step-pause} in between, and progress is
+ * published on the job after every step. The snapshot is written next to its final name
+ * and moved there once complete, so a file in the backup directory is always whole.
+ * Once it is, snapshots beyond the newest {@code retain} are deleted.
+ *
+ * <p>Outside WAL mode a read transaction would hold off every commit until the copy is
+ * done, so the copy takes no snapshot there and SQLite restarts it after each write.
+ * With the memory engine only writes already flushed are in the snapshot.
+ */
+@Service
+public class BackupService implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(BackupService.class);
+
+    // Finished jobs kept for GET /actuator/backups, the oldest are forgotten first
+    static final int MAX_JOBS = 20;
+
+    // A step that finds the database locked is retried this often, this far apart
+    private static final int BUSY_RETRIES = 50;
+    private static final int BUSY_RETRY_MILLIS = 100;
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+    // todos-<timestamp>-<id>.db, the names written by backup()
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("todos-(\\d{8}T\\d{6}Z)-(\\d+)\\.db");
+    // Newest first: later timestamp, then higher id within the same second
+    private static final Comparator<Matcher> NEWEST_FIRST = Comparator
+            .comparing((Matcher name) -> name.group(1))
+            .thenComparingLong(name -> Long.parseLong(name.group(2)))
+            .reversed();
+
+    private final HikariDataSource readPool;
+    private final BackupProperties properties;
+    private final Timer completed;
+    private final Timer failed;
+    private final AtomicLong ids = new AtomicLong();
+    private final AtomicReference<BackupJob> running = new AtomicReference<>();
+    private final Map<Long, BackupJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BackupJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    private ExecutorService executor;
+
+    public BackupService(@Qualifier("readDataSource") HikariDataSource readPool, BackupProperties properties,
+                         MeterRegistry registry) {
+        this.readPool = readPool;
+        this.properties = properties;
+        this.completed = Timer.builder("todos.backup")
+                .description("Online backups of the database")
+                .tag("outcome", "completed")
+                .register(registry);
+        this.failed = Timer.builder("todos.backup")
+                .description("Online backups of the database")
+                .tag("outcome", "failed")
+                .register(registry);
+    }
+
+    /**
+     * Starts a backup and returns its job at once, the copy runs in the background.
+     * Throws BackupInProgressException while another backup is running.
+     */
+    public BackupJob backup() {
+        ExecutorService executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException("Backups are not accepted while the application is stopping");
+        }
+        long id = ids.incrementAndGet();
+        Path target = Path.of(properties.getDirectory())
+                .resolve("todos-" + FILE_TIMESTAMP.format(Instant.now()) + "-" + id + ".db")
+                .toAbsolutePath().normalize();
+        BackupJob job = new BackupJob(id, target.getFileName().toString());
+        if (!running.compareAndSet(null, job)) {
+            throw new BackupInProgressException("Backup " + running.get().getId() + " is still running");
+        }
+        synchronized (jobs) {
+            jobs.put(id, job);
+        }
+        executor.execute(() -> run(job, target));
+        return job;
+    }
+
+    public Optional<BackupJob> getJob(long id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    // Newest first
+    public List<BackupJob> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values()).reversed();
+        }
+    }
+
+    private void run(BackupJob job, Path target) {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        try {
+            Files.createDirectories(target.getParent());
+            Files.deleteIfExists(part);
+            copy(job, part);
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(Files.size(target));
+            completed.record(job.getDurationMillis(), TimeUnit.MILLISECONDS);
+            log.info("Backup {} written to {}: {} pages, {} bytes in {} ms",
+                    job.getId(), target, job.getPagesTotal(), job.getSizeBytes(), job.getDurationMillis());
+            deleteOldSnapshots(target.getParent());
+        } catch (Exception e) {
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            failed.record(job.getDurationMillis(), TimeUnit.MILLISECONDS);
+            log.warn("Backup {} failed", job.getId(), e);
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+        } finally {
+            running.set(null);
+        }
+    }
+
+    // A snapshot that cannot be deleted is left for the next backup to retry, the new one is already whole
+    private void deleteOldSnapshots(Path directory) {
+        int retain = properties.getRetain();
+        if (retain <= 0) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Matcher> old = files.map(file -> SNAPSHOT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .sorted(NEWEST_FIRST)
+                    .skip(retain)
+                    .toList();
+            for (Matcher name : old) {
+                Files.deleteIfExists(directory.resolve(name.group()));
+                log.info("Deleted snapshot {}, more than {} are kept", name.group(), retain);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete old snapshots in {}", directory, e);
+        }
+    }
+
+    private void copy(BackupJob job, Path part) throws SQLException {
+        try (Connection con = readPool.getConnection()) {
+            boolean snapshot = isWal(con);
+            if (snapshot) {
+                // The first read starts the transaction, every step then copies the same snapshot
+                con.setAutoCommit(false);
+                execute(con, "SELECT COUNT(*) FROM sqlite_master");
+            }
+            try {
+                int rc = con.unwrap(SQLiteConnection.class).getDatabase().backup("main", part.toString(),
+                        (remaining, total) -> step(job, remaining, total),
+                        BUSY_RETRY_MILLIS, BUSY_RETRIES, properties.getPagesPerStep());
+                if (rc != SQLiteErrorCode.SQLITE_OK.code && rc != SQLiteErrorCode.SQLITE_DONE.code) {
+                    throw new SQLException("SQLite backup failed: " + SQLiteErrorCode.getErrorCode(rc), null, rc);
+                }
+            } finally {
+                if (snapshot) {
+                    con.rollback();
+                    con.setAutoCommit(true);
+                }
+            }
+        }
+    }
+
+    private void step(BackupJob job, int remaining, int total) {
+        job.progress(remaining, total);
+        long pause = properties.getStepPause().toMillis();
+        if (remaining > 0 && pause > 0) {
+            try {
+                Thread.sleep(pause);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static boolean isWal(Connection con) throws SQLException {
+        try (Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA journal_mode")) {
+            return rs.next() && "wal".equalsIgnoreCase(rs.getString(1));
+        }
+    }
+
+    private static void execute(Connection con, String sql) throws SQLException {
+        try (Statement statement = con.createStatement();
+             ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+        }
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("todo-backup").daemon().factory());
+    }
+
+    // A backup still running is abandoned, its partial file is left behind
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
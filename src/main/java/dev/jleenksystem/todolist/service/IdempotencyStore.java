@@ -0,0 +1,168 @@
+package dev.jleenksystem.todolist.service;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import dev.jleenksystem.todolist.config.IdempotencyProperties;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.exception.IdempotencyKeyMismatchException;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Creates a todo at most once per client and Idempotency-Key within {@code todos.idempotency.ttl}.
+ * Clients are identified as for rate limiting, so one client cannot replay, or be refused,
+ * another client's create by guessing its key.
+ *
+ * <p>Keys live in two tiers. The most recent are held in memory, so a retry is answered
+ * without touching SQLite. Every key is also stored in idempotency_keys in the same
+ * transaction as its todo, so it survives restarts and outlives the memory tier; a key
+ * not in memory costs one primary-key lookup on the read pool. Concurrent requests with
+ * the same key share one create, the later ones wait for it and get its result.
+ *
+ * <p>With the memory engine the todo is persisted on the next flush while its key is
+ * stored at once, so a crash in between can leave a key for a todo that was lost.
+ */
+@Service
+public class IdempotencyStore implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyKeyRepository keys;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate tx;
+    private final AsyncCache<ClientKey, Todo> cache;
+
+    private ScheduledExecutorService purger;
+
+    public IdempotencyStore(IdempotencyKeyRepository keys, IdempotencyProperties properties,
+                            PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.keys = keys;
+        this.properties = properties;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency");
+    }
+
+    private record ClientKey(String client, String key) {
+    }
+
+    /**
+     * Returns the todo the client created for the key, running create only if the key is
+     * new for that client. create is expected to call {@link #saveWithKey} to store the key
+     * with its todo.
+     */
+    public IdempotentResult<Todo> create(String client, String key, Todo request, Supplier<Todo> create) {
+        checkKey(key);
+        CompletableFuture<Todo> load = new CompletableFuture<>();
+        CompletableFuture<Todo> entry = cache.get(new ClientKey(client, key), (k, executor) -> load);
+        boolean created = false;
+        if (entry == load) {
+            try {
+                Optional<Todo> stored = keys.find(client, key, System.currentTimeMillis() - properties.getTtl().toMillis());
+                created = stored.isEmpty();
+                load.complete(stored.orElseGet(create));
+            } catch (RuntimeException e) {
+                // Failed futures are dropped from the cache, so a retry runs the create again
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        Todo todo;
+        try {
+            todo = entry.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        if (!created && !sameRequest(request, todo)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used with a different request");
+        }
+        return new IdempotentResult<>(copy(todo), !created);
+    }
+
+    /**
+     * Runs save and stores the key with the saved todo in one transaction, joining the
+     * caller's transaction if there is one.
+     */
+    public Todo saveWithKey(String client, String key, Supplier<Todo> save) {
+        return tx.execute(status -> {
+            Todo saved = save.get();
+            keys.save(client, key, saved, System.currentTimeMillis());
+            return copy(saved);
+        });
+    }
+
+    private static void checkKey(String key) {
+        if (key == null || key.isBlank()) {
+            throw new BadRequestException("Idempotency-Key must not be blank");
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must not be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    // The stored todo is the request as it was created, so its fields are the original request's
+    private static boolean sameRequest(Todo request, Todo stored) {
+        return Objects.equals(request.getDescription(), stored.getDescription())
+                && request.isCompleted() == stored.isCompleted();
+    }
+
+    private static Todo copy(Todo todo) {
+        return new Todo(todo.getId(), todo.getDescription(), todo.isCompleted(), todo.getVersion());
+    }
+
+    void purge() {
+        try {
+            int purged = keys.purge(System.currentTimeMillis() - properties.getTtl().toMillis());
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Purging idempotency keys failed", e);
+        }
+    }
+
+    @Override
+    public void start() {
+        long interval = properties.getPurgeInterval().toMillis();
+        purger = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("idempotency-purger").daemon().factory());
+        purger.scheduleWithFixedDelay(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+            purger = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return purger != null;
+    }
+}
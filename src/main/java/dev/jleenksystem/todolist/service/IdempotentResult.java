@@ -0,0 +1,8 @@
+package dev.jleenksystem.todolist.service;
+
+/**
+ * Outcome of a keyed request: its value, and whether that value was stored by an
+ * earlier request with the same key rather than produced now.
+ */
+public record IdempotentResult<T>(T value, boolean replayed) {
+}
@@ -0,0 +1,273 @@
+package dev.jleenksystem.todolist.service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jleenksystem.todolist.config.ChangeFeedProperties;
+import dev.jleenksystem.todolist.dto.TodoChangeDto;
+import dev.jleenksystem.todolist.dto.TodoChangePage;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.exception.ChangesExpiredException;
+import dev.jleenksystem.todolist.mapper.TodoMapper;
+import dev.jleenksystem.todolist.model.TodoChange;
+import dev.jleenksystem.todolist.repository.TodoChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Serves the change log as pages and as a live Server-Sent Events stream.
+ *
+ * <p>Writers never wait for subscribers: changes are logged by triggers in the writing
+ * transaction, and a single poller reads new changes every {@code todos.changes.poll-interval},
+ * serializes each once and offers it to every subscriber's bounded queue. Each subscriber
+ * has its own virtual thread that sends from the queue. A subscriber whose queue is full
+ * is sent what it has queued and then disconnected; it reconnects with Last-Event-ID and
+ * catches up from the log, or gets 410 if that part of the log was purged meanwhile.
+ */
+@Service
+public class TodoChangeFeed implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TodoChangeFeed.class);
+
+    // Changes read per query, by the poller and by subscribers catching up
+    static final int BATCH_SIZE = 1000;
+
+    private final TodoChangeRepository changes;
+    private final ChangeFeedProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Counter dropped;
+
+    // Last change handed to the subscribers, only touched by the poller
+    private long position;
+    private long lastPurge = System.nanoTime();
+
+    private ScheduledExecutorService poller;
+
+    public TodoChangeFeed(TodoChangeRepository changes, ChangeFeedProperties properties, ObjectMapper objectMapper,
+                          MeterRegistry registry) {
+        this.changes = changes;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+
+        Gauge.builder("todos.changes.subscribers", subscribers, Set::size)
+                .description("Open change feed streams")
+                .register(registry);
+        this.dropped = Counter.builder("todos.changes.dropped")
+                .description("Change feed streams closed because the client fell too far behind")
+                .register(registry);
+    }
+
+    /**
+     * Up to limit changes after since. Without since, no changes and the current position,
+     * to start following from.
+     */
+    public TodoChangePage getChanges(Long since, int limit) {
+        long last = changes.lastSeq();
+        if (since == null) {
+            return new TodoChangePage(List.of(), last);
+        }
+        checkAvailable(since, last);
+        int size = Math.min(Math.max(limit, 1), TodoService.MAX_PAGE_SIZE);
+        List<TodoChangeDto> items = changes.findAfter(since, size).stream().map(TodoMapper::toDto).toList();
+        long lastSeq = items.isEmpty() ? since : items.get(items.size() - 1).getSeq();
+        return new TodoChangePage(items, lastSeq);
+    }
+
+    /**
+     * Streams every change after since, then new changes as they are logged. Without since
+     * the stream starts at the current position.
+     */
+    public SseEmitter subscribe(Long since) {
+        long last = changes.lastSeq();
+        long from = since != null ? since : last;
+        checkAvailable(from, last);
+
+        SseEmitter emitter = new SseEmitter(properties.getTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, from, properties.getSubscriberBuffer());
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        // Registered before catching up, so nothing logged meanwhile is missed, duplicates are skipped by seq
+        subscribers.add(subscriber);
+        subscriber.thread = Thread.ofVirtual().name("todo-changes-subscriber").start(() -> send(subscriber));
+        return emitter;
+    }
+
+    private void checkAvailable(long since, long last) {
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        // Ahead of the log means the database was replaced, behind it means the changes were purged
+        if (since > last || since + 1 < changes.firstSeq()) {
+            throw new ChangesExpiredException("Changes after " + since + " are no longer available, reload the todos");
+        }
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            // Commits the response headers, so the client knows it is subscribed before the first change
+            subscriber.emitter.send(SseEmitter.event().comment("subscribed"));
+            List<TodoChange> backlog;
+            do {
+                backlog = changes.findAfter(subscriber.sent, BATCH_SIZE);
+                for (TodoChange change : backlog) {
+                    subscriber.send(event(change));
+                }
+            } while (backlog.size() == BATCH_SIZE && !subscriber.closed);
+
+            long heartbeat = properties.getHeartbeat().toMillis();
+            while (!subscriber.closed) {
+                Event event = subscriber.overflowed ? subscriber.queue.poll()
+                        : subscriber.queue.poll(heartbeat, TimeUnit.MILLISECONDS);
+                if (event != null) {
+                    subscriber.send(event);
+                } else if (subscriber.overflowed) {
+                    subscriber.emitter.complete();
+                    return;
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().comment("keepalive"));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away, the container completes the emitter
+        } catch (InterruptedException e) {
+            // Closed by the emitter callbacks or on shutdown
+        } catch (RuntimeException e) {
+            log.warn("Change feed subscriber failed", e);
+            subscriber.emitter.completeWithError(e);
+        } finally {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    // Reads the changes logged since the last run and offers them to every subscriber
+    void poll() {
+        try {
+            // The position only moves over changes read here. Subscribers are checked after the
+            // read, so one registering later catches up after it and sees everything skipped
+            List<TodoChange> page;
+            do {
+                page = changes.findAfter(position, BATCH_SIZE);
+                for (TodoChange change : page) {
+                    if (!subscribers.isEmpty()) {
+                        broadcast(event(change));
+                    }
+                    position = change.getSeq();
+                }
+            } while (page.size() == BATCH_SIZE);
+
+            if (System.nanoTime() - lastPurge >= properties.getPurgeInterval().toNanos()) {
+                lastPurge = System.nanoTime();
+                int purged = changes.purge(properties.getRetained());
+                if (purged > 0) {
+                    log.debug("Purged {} changes from the change log", purged);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Reading the change log failed", e);
+        }
+    }
+
+    private void broadcast(Event event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.overflowed && !subscriber.queue.offer(event)) {
+                // Never wait for a slow client, it is cut off once it has drained its queue
+                subscriber.overflowed = true;
+                subscribers.remove(subscriber);
+                dropped.increment();
+            }
+        }
+    }
+
+    // Serialized once and shared by every subscriber
+    private Event event(TodoChange change) {
+        try {
+            return new Event(change.getSeq(), objectMapper.writeValueAsString(TodoMapper.toDto(change)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change " + change.getSeq(), e);
+        }
+    }
+
+    @Override
+    public void start() {
+        position = changes.lastSeq();
+        long interval = properties.getPollInterval().toMillis();
+        poller = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("todo-changes-poller").daemon().factory());
+        poller.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+        subscribers.forEach(subscriber -> {
+            subscriber.close();
+            subscriber.emitter.complete();
+        });
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return poller != null;
+    }
+
+    private record Event(long seq, String json) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Event> queue;
+        private volatile Thread thread;
+        private volatile boolean closed;
+        private volatile boolean overflowed;
+
+        // Last seq sent, only touched by the subscriber's thread
+        private long sent;
+
+        Subscriber(SseEmitter emitter, long since, int capacity) {
+            this.emitter = emitter;
+            this.sent = since;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+
+        void send(Event event) throws IOException {
+            if (event.seq() <= sent) {
+                return;
+            }
+            emitter.send(SseEmitter.event().id(Long.toString(event.seq())).name("change").data(event.json()));
+            sent = event.seq();
+        }
+
+        void close() {
+            closed = true;
+            Thread current = thread;
+            if (current != null && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
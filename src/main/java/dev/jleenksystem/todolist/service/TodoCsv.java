@@ -0,0 +1,169 @@
+package dev.jleenksystem.todolist.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.jleenksystem.todolist.model.Todo;
+
+/**
+ * CSV as written by the export and read by the import (RFC 4180): a header row, comma
+ * separated fields, fields quoted with double quotes when they contain a comma, a quote
+ * or a line break, quotes inside them doubled.
+ */
+final class TodoCsv {
+    static final String HEADER = "id,description,completed";
+
+    private TodoCsv() {
+    }
+
+    static void writeRow(Todo todo, Writer out) throws IOException {
+        out.write(Long.toString(todo.getId()));
+        out.write(',');
+        writeField(todo.getDescription(), out);
+        out.write(',');
+        out.write(todo.isCompleted() ? "true" : "false");
+        out.write('\n');
+    }
+
+    private static void writeField(String value, Writer out) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * Reads one record at a time, so a body of any size is parsed in constant memory.
+     * The reader is expected to be buffered. A record longer than {@code maxLength}
+     * characters is still read to its end, so the next one starts in the right place, but
+     * nothing past the limit is kept and {@link #overlong()} reports it.
+     */
+    static final class RecordReader {
+        private final Reader in;
+        private final int maxLength;
+        private final StringBuilder field = new StringBuilder();
+        private int line = 1;
+        private int recordLine;
+        private boolean overlong;
+        private int pending = -2;
+
+        RecordReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        // Line the last record started on, quoted line breaks make a record span several
+        int line() {
+            return recordLine;
+        }
+
+        // Whether the last record was cut at maxLength, its fields are then incomplete
+        boolean overlong() {
+            return overlong;
+        }
+
+        /**
+         * The fields of the next record, or null at the end of the input. A quote left open
+         * at the end of the input ends the field there.
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            // Blank lines between records are skipped
+            while (c == '\n' || c == '\r') {
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+            List<String> fields = new ArrayList<>();
+            boolean quoted = false;
+            boolean fieldStart = true;
+            long length = 0;
+            overlong = false;
+            field.setLength(0);
+            while (true) {
+                if (c != -1 && ++length > maxLength && !overlong) {
+                    overlong = true;
+                    fields.clear();
+                    field.setLength(0);
+                }
+                if (quoted) {
+                    if (c == -1) {
+                        break;
+                    }
+                    if (c == '"') {
+                        int following = read();
+                        if (following != '"') {
+                            quoted = false;
+                            c = following;
+                            continue;
+                        }
+                    }
+                    keep(c);
+                } else if (c == '"' && fieldStart) {
+                    quoted = true;
+                } else if (c == ',') {
+                    if (!overlong) {
+                        fields.add(field.toString());
+                    }
+                    field.setLength(0);
+                    fieldStart = true;
+                    c = read();
+                    continue;
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    break;
+                } else {
+                    keep(c);
+                }
+                fieldStart = false;
+                c = read();
+            }
+            if (!overlong) {
+                fields.add(field.toString());
+            }
+            return fields;
+        }
+
+        private void keep(int c) {
+            if (!overlong) {
+                field.append((char) c);
+            }
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (pending != -2) {
+                c = pending;
+                pending = -2;
+            } else {
+                c = in.read();
+                if (c == '\n') {
+                    line++;
+                }
+            }
+            return c;
+        }
+
+        private void unread(int c) {
+            pending = c;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dev.jleenksystem.todolist.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import dev.jleenksystem.todolist.exception.BadRequestException;
+
+/**
+ * Encodes the last seen id of a page into an opaque, URL-safe cursor.
+ */
+public class TodoCursor {
+    private static final String PREFIX = "id:";
+
+    public static String encode(long lastId) {
+        byte[] bytes = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public static long decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!raw.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
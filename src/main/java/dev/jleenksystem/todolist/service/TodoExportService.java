@@ -0,0 +1,76 @@
+package dev.jleenksystem.todolist.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.jleenksystem.todolist.mapper.TodoDtoSerializer;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+
+@Service
+public class TodoExportService {
+    private final TodoRepository repo;
+    private final ObjectMapper objectMapper;
+
+    public TodoExportService(TodoRepository repo, ObjectMapper objectMapper) {
+        this.repo = repo;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every todo as one JSON object per line. Rows are read in chunks and written
+     * as each chunk arrives, so at most one chunk of todos is held in memory.
+     */
+    public void writeNdjson(OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Lines are terminated explicitly below, no separator between root values
+        gen.setRootValueSeparator(null);
+        try {
+            repo.streamAll(todo -> {
+                try {
+                    TodoDtoSerializer.write(todo, gen);
+                    gen.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away or the stream broke, stop reading rows
+            throw e.getCause();
+        } finally {
+            gen.close();
+        }
+    }
+
+    /**
+     * Writes every todo as a CSV row after a header row, streamed like
+     * {@link #writeNdjson}. The output can be imported again as is.
+     */
+    public void writeCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(TodoCsv.HEADER);
+        writer.write('\n');
+        try {
+            repo.streamAll(todo -> {
+                try {
+                    TodoCsv.writeRow(todo, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,258 @@
+package dev.jleenksystem.todolist.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.dto.TodoImportReport;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.mapper.TodoMapper;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Bulk import from CSV or NDJSON bodies. The body is parsed row by row as it arrives and
+ * valid rows are inserted in chunks of {@code todos.import.chunk-size}, one JDBC batch and
+ * one transaction per chunk, so memory stays flat whatever the size of the body and
+ * throughput is bound by SQLite's commits rather than by requests.
+ *
+ * <p>Rows are validated like {@code POST /todos} bodies. Invalid rows are skipped and
+ * reported, the others are still imported. Chunks already committed stay if the import
+ * fails later on. A CSV record or NDJSON line longer than {@code todos.import.max-record-length}
+ * characters is rejected without being buffered, and the import goes on with the next one. Progress is logged after every chunk and counted as
+ * {@code todos.import.rows}, tagged with the outcome.
+ */
+@Service
+public class TodoImportService {
+    private static final Logger log = LoggerFactory.getLogger(TodoImportService.class);
+
+    // Rejected rows listed in the report, the rest are only counted
+    static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final TodoRepository repo;
+    private final ObjectReader dtoReader;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxRecordLength;
+    private final Counter ingestedRows;
+    private final Counter rejectedRows;
+
+    public TodoImportService(TodoRepository repo, ObjectMapper objectMapper, Validator validator,
+                             @Value("${todos.import.chunk-size:10000}") int chunkSize,
+                             @Value("${todos.import.max-record-length:65536}") int maxRecordLength,
+                             MeterRegistry registry) {
+        this.repo = repo;
+        this.dtoReader = objectMapper.readerFor(TodoDto.class);
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxRecordLength = maxRecordLength;
+        this.ingestedRows = Counter.builder("todos.import.rows")
+                .description("Rows read by bulk imports")
+                .tag("outcome", "ingested")
+                .register(registry);
+        this.rejectedRows = Counter.builder("todos.import.rows")
+                .description("Rows read by bulk imports")
+                .tag("outcome", "rejected")
+                .register(registry);
+    }
+
+    // One JSON object per line, blank lines are skipped. An id in the input is ignored
+    public TodoImportReport importNdjson(InputStream body) throws IOException {
+        LineReader in = new LineReader(reader(body), maxRecordLength);
+        Import run = new Import();
+        String line;
+        long number = 0;
+        while ((line = in.next()) != null) {
+            number++;
+            if (in.overlong()) {
+                run.reject(number, tooLong());
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            TodoDto dto;
+            try {
+                dto = dtoReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.reject(number, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            if (dto == null) {
+                run.reject(number, "Expected a JSON object");
+                continue;
+            }
+            run.add(number, dto);
+        }
+        return run.finish();
+    }
+
+    /**
+     * A header row naming the columns, then one todo per row. description is required,
+     * completed is optional, other columns such as the id of an export are ignored.
+     */
+    public TodoImportReport importCsv(InputStream body) throws IOException {
+        TodoCsv.RecordReader in = new TodoCsv.RecordReader(reader(body), maxRecordLength);
+        List<String> header = in.next();
+        if (header == null) {
+            return new Import().finish();
+        }
+        if (in.overlong()) {
+            throw new BadRequestException("CSV header is longer than " + maxRecordLength + " characters");
+        }
+        // A byte order mark, as spreadsheet tools write, is not part of the first column name
+        List<String> columns = header.stream()
+                .map(name -> name.replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int description = columns.indexOf("description");
+        int completed = columns.indexOf("completed");
+        if (description < 0) {
+            throw new BadRequestException("CSV header must name a description column");
+        }
+
+        Import run = new Import();
+        List<String> fields;
+        while ((fields = in.next()) != null) {
+            if (in.overlong()) {
+                run.reject(in.line(), tooLong());
+                continue;
+            }
+            if (fields.size() != columns.size()) {
+                run.reject(in.line(), "Expected " + columns.size() + " fields, found " + fields.size());
+                continue;
+            }
+            String flag = completed >= 0 ? fields.get(completed).trim() : "";
+            if (!flag.isEmpty() && !flag.equalsIgnoreCase("true") && !flag.equalsIgnoreCase("false")) {
+                run.reject(in.line(), "completed must be true or false");
+                continue;
+            }
+            run.add(in.line(), new TodoDto(null, fields.get(description), flag.isEmpty() ? null : Boolean.valueOf(flag)));
+        }
+        return run.finish();
+    }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private String tooLong() {
+        return "Longer than " + maxRecordLength + " characters";
+    }
+
+    /**
+     * Lines split on \n, with a \r before it dropped. Like {@link TodoCsv.RecordReader}, a line
+     * longer than maxLength characters is read to its end but not kept, so a body without line
+     * breaks is never buffered whole.
+     */
+    static final class LineReader {
+        private final Reader in;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean overlong;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        // Whether the last line was longer than maxLength, it is then returned empty
+        boolean overlong() {
+            return overlong;
+        }
+
+        // The next line without its terminator, null at the end of the input
+        String next() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+            line.setLength(0);
+            overlong = false;
+            long length = 0;
+            while (c != -1 && c != '\n') {
+                // A \r ending the line does not count towards its length
+                if (c != '\r' && ++length > maxLength) {
+                    overlong = true;
+                    line.setLength(0);
+                } else if (!overlong) {
+                    line.append((char) c);
+                }
+                c = in.read();
+            }
+            int end = line.length();
+            if (end > 0 && line.charAt(end - 1) == '\r') {
+                line.setLength(end - 1);
+            }
+            return line.toString();
+        }
+    }
+
+    // State of one import, rows are buffered up to one chunk
+    private final class Import {
+        private List<Todo> chunk = new ArrayList<>(chunkSize);
+        private final List<TodoImportReport.Rejection> rejections = new ArrayList<>();
+        private long ingested;
+        private long rejected;
+
+        void add(long line, TodoDto dto) {
+            Set<ConstraintViolation<TodoDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(line, violations.stream().map(ConstraintViolation::getMessage).sorted()
+                        .collect(Collectors.joining(", ")));
+                return;
+            }
+            dto.setId(null);
+            chunk.add(TodoMapper.toEntity(dto));
+            if (chunk.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            rejectedRows.increment();
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new TodoImportReport.Rejection(line, message));
+            }
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            repo.saveAll(chunk);
+            ingested += chunk.size();
+            ingestedRows.increment(chunk.size());
+            // saveAll returns the list it was given, so it is not reused
+            chunk = new ArrayList<>(chunkSize);
+            log.info("Import progress: {} todos ingested, {} rows rejected", ingested, rejected);
+        }
+
+        TodoImportReport finish() {
+            flush();
+            return new TodoImportReport(ingested, rejected, rejections);
+        }
+    }
+}
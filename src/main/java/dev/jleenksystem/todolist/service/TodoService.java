@@ -1,26 +1,96 @@
 package dev.jleenksystem.todolist.service;
 
 import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.dto.TodoPage;
+import dev.jleenksystem.todolist.exception.BadRequestException;
 import dev.jleenksystem.todolist.exception.TodoNotFoundException;
+import dev.jleenksystem.todolist.exception.TodoVersionMismatchException;
 import dev.jleenksystem.todolist.mapper.TodoMapper;
 import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoPatch;
+import dev.jleenksystem.todolist.model.TodoStats;
 import dev.jleenksystem.todolist.repository.TodoRepository;
 
 @Service
 public class TodoService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 10_000;
+
     private final TodoRepository repo;
+    private final TodoWriteQueue writes;
+    private final IdempotencyStore idempotency;
+
+    // Cap of the unpaginated list, larger result sets must be paged
+    @Value("${todos.list.max-size:1000}")
+    private int maxListSize = 1000;
 
-    public TodoService(TodoRepository repo) {
+    public TodoService(TodoRepository repo, TodoWriteQueue writes, IdempotencyStore idempotency) {
         this.repo = repo;
+        this.writes = writes;
+        this.idempotency = idempotency;
+    }
+
+    // With the write queue disabled, submit runs the mutation on the calling thread
+    private <T> T write(Supplier<T> mutation) {
+        return writes.submit(mutation);
+    }
+
+    /**
+     * The unpaginated list, at most todos.list.max-size todos in id order. When there are
+     * more, the page carries the cursor to continue from with {@link #getPage}.
+     */
+    public TodoPage getAll() {
+        return getPage(TodoFilter.NONE, null, maxListSize, maxListSize);
+    }
+
+    // The cursor is only meaningful with the same filter and order it was issued for
+    public TodoPage getPage(TodoFilter filter, Long afterId, int limit) {
+        return getPage(filter, afterId, limit, MAX_PAGE_SIZE);
+    }
+
+    private TodoPage getPage(TodoFilter filter, Long afterId, int limit, int maxSize) {
+        int size = Math.min(Math.max(limit, 1), maxSize);
+
+        // Fetch one extra row to know whether another page follows
+        List<Todo> rows = repo.findPage(filter, afterId, size + 1);
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
+
+        List<TodoDto> items = TodoMapper.toDtoList(rows);
+        String nextCursor = hasMore ? TodoCursor.encode(rows.get(size - 1).getId()) : null;
+        return new TodoPage(items, nextCursor);
+    }
+
+    public List<TodoDto> search(String query, int limit, int offset) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be blank");
+        }
+        if (offset < 0) {
+            throw new BadRequestException("offset must not be negative");
+        }
+        int size = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return TodoMapper.toDtoList(repo.search(query, size, offset));
+    }
+
+    public long changeCount() {
+        return repo.changeCount();
     }
 
-    public List<TodoDto> getAll() {
-        return repo.findAll().stream().map(TodoMapper::toDto).collect(Collectors.toList());
+    public TodoStats getStats() {
+        return repo.stats();
     }
 
     public TodoDto getById(Long id) {
@@ -30,28 +100,87 @@ public class TodoService {
 
     public TodoDto create(TodoDto dto) {
         Todo todo = TodoMapper.toEntity(dto);
-        Todo saved = repo.save(todo);
+        Todo saved = write(() -> repo.save(todo));
         return TodoMapper.toDto(saved);
     }
 
-    public TodoDto patch(Long id, TodoDto dto) {
-        Todo existing = repo.findById(id).orElseThrow(() -> new TodoNotFoundException("Todo not found for update"));
+    /**
+     * Creates the todo once per client and idempotency key. A retry by the same client with
+     * the same key returns the todo as first created, without writing again.
+     */
+    public IdempotentResult<TodoDto> create(TodoDto dto, String client, String idempotencyKey) {
+        Todo todo = TodoMapper.toEntity(dto);
+        IdempotentResult<Todo> result = idempotency.create(client, idempotencyKey, todo,
+                () -> write(() -> idempotency.saveWithKey(client, idempotencyKey, () -> repo.save(todo))));
+        return new IdempotentResult<>(TodoMapper.toDto(result.value()), result.replayed());
+    }
+
+    @Transactional
+    public List<TodoDto> createAll(List<TodoDto> dtos) {
+        checkBatchSize(dtos);
+        List<Todo> todos = dtos.stream().map(TodoMapper::toEntity).collect(Collectors.toList());
+        return TodoMapper.toDtoList(repo.saveAll(todos));
+    }
+
+    @Transactional
+    public List<TodoDto> patchAll(List<TodoDto> dtos) {
+        checkBatchSize(dtos);
+        if (dtos.stream().anyMatch(dto -> dto.getId() == null)) {
+            throw new BadRequestException("id is required for every todo in a batch update");
+        }
+
+        List<TodoPatch> patches = dtos.stream().map(dto -> TodoMapper.toPatch(dto.getId(), dto)).toList();
+        List<Long> missing = repo.patchAll(patches);
+        if (!missing.isEmpty()) {
+            // Rolls the whole batch back
+            throw new TodoNotFoundException("Todo not found for update: " + missing);
+        }
+
+        List<Long> ids = patches.stream().map(TodoPatch::getId).toList();
+        return TodoMapper.toDtoList(repo.findAllById(ids));
+    }
 
-        // Apply only provided fields
-        if (dto.getDescription() != null) {
-            existing.setDescription(dto.getDescription());
+    @Transactional
+    public void deleteAll(List<Long> ids) {
+        checkBatchSize(ids);
+        List<Long> missing = repo.deleteAll(ids);
+        if (!missing.isEmpty()) {
+            throw new TodoNotFoundException("Todo not found for delete: " + missing);
         }
+    }
 
-        if (dto.getCompleted() != null) {
-            existing.setCompleted(dto.getCompleted());
+    private static void checkBatchSize(List<?> batch) {
+        if (batch == null || batch.isEmpty()) {
+            throw new BadRequestException("batch must not be empty");
+        }
+        if (batch.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("batch must not contain more than " + MAX_BATCH_SIZE + " items");
         }
+    }
+
+    public TodoDto patch(Long id, TodoDto dto) {
+        return patch(id, dto, null);
+    }
 
-        repo.update(id, existing);
-        return TodoMapper.toDto(existing);
+    /**
+     * Applies only the provided fields in a single conditional UPDATE. With expected
+     * versions the patch fails with {@link TodoVersionMismatchException} unless the todo
+     * is still at one of them. An empty set never matches.
+     */
+    public TodoDto patch(Long id, TodoDto dto, Set<Long> expectedVersions) {
+        TodoPatch patch = TodoMapper.toPatch(id, dto);
+        Todo updated = write(() -> repo.patch(patch, expectedVersions).orElseThrow(() -> {
+            // Only the failure path pays for telling a missing todo from a stale version
+            if (expectedVersions != null && repo.findById(id).isPresent()) {
+                return new TodoVersionMismatchException("Todo was modified, current version does not match If-Match");
+            }
+            return new TodoNotFoundException("Todo not found for update");
+        }));
+        return TodoMapper.toDto(updated);
     }
 
     public void delete(Long id) {
-        int rows = repo.delete(id);
+        int rows = write(() -> repo.delete(id));
         if (rows == 0) {
             throw new TodoNotFoundException("Todo not found for delete");
         }
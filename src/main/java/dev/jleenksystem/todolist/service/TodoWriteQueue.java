@@ -0,0 +1,224 @@
+package dev.jleenksystem.todolist.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import dev.jleenksystem.todolist.config.WriteQueueProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Group commit for todo mutations. Request threads enqueue their mutation and wait,
+ * a single writer thread drains the queue in micro-batches and runs each batch in
+ * one transaction, so concurrent writes share one fsync. Every mutation runs in its
+ * own savepoint, a failing mutation is rolled back alone and its exception is
+ * handed to its caller only.
+ *
+ * <p>When {@code todos.write-queue.enabled} is false, mutations run directly on the
+ * calling thread.
+ */
+@Component
+public class TodoWriteQueue implements SmartLifecycle {
+    private static final Logger log = LoggerFactory.getLogger(TodoWriteQueue.class);
+
+    private final WriteQueueProperties properties;
+    private final TransactionTemplate batchTx;
+    private final TransactionTemplate mutationTx;
+    private final BlockingQueue<Mutation<?>> queue;
+    private final DistributionSummary batchSizes;
+    private final Timer commitTimer;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    public TodoWriteQueue(WriteQueueProperties properties, PlatformTransactionManager transactionManager,
+                          MeterRegistry registry) {
+        this.properties = properties;
+        this.batchTx = new TransactionTemplate(transactionManager);
+        this.mutationTx = new TransactionTemplate(transactionManager);
+        this.mutationTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+
+        Gauge.builder("todos.write.queue.depth", queue, BlockingQueue::size)
+                .description("Mutations waiting for the writer thread")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("todos.write.batch.size")
+                .description("Mutations committed per transaction")
+                .register(registry);
+        this.commitTimer = Timer.builder("todos.write.batch.duration")
+                .description("Time to run and commit one batch")
+                .register(registry);
+    }
+
+    /**
+     * Runs the mutation and returns its result once it is committed.
+     */
+    public <T> T submit(Supplier<T> action) {
+        if (!properties.isEnabled() || !running) {
+            return action.get();
+        }
+
+        Mutation<T> mutation = new Mutation<>(action);
+        try {
+            queue.put(mutation);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write queue", e);
+        }
+        // stop() may have drained the queue for the last time between the check above and
+        // the put. A mutation still queued then has no one left to run it, so it runs here;
+        // one already taken is completed by whoever took it
+        if (!running && queue.remove(mutation)) {
+            commit(List.of(mutation));
+        }
+
+        try {
+            return mutation.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void drainLoop() {
+        List<Mutation<?>> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Mutation<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                commit(batch);
+            } catch (InterruptedException e) {
+                // Stop requested, the loop condition drains what is left
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Waits at most max-linger for the batch to fill up
+    private void fill(List<Mutation<?>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + properties.getMaxLinger().toNanos();
+        while (batch.size() < properties.getBatchSize()) {
+            queue.drainTo(batch, properties.getBatchSize() - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                return;
+            }
+            Mutation<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void commit(List<Mutation<?>> batch) {
+        long start = System.nanoTime();
+        try {
+            batchTx.executeWithoutResult(status -> {
+                for (Mutation<?> mutation : batch) {
+                    mutation.run(mutationTx);
+                }
+            });
+        } catch (RuntimeException | Error e) {
+            log.error("Write batch of {} mutations failed to commit", batch.size(), e);
+            batch.forEach(mutation -> mutation.result.completeExceptionally(e));
+            return;
+        } finally {
+            commitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizes.record(batch.size());
+        }
+        // Callers only see their result after the commit
+        batch.forEach(Mutation::complete);
+    }
+
+    // Mutations waiting for the writer thread
+    public int depth() {
+        return queue.size();
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = Thread.ofPlatform().name("todo-writer").daemon().start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = writer;
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        writer = null;
+
+        // Mutations that raced with shutdown are committed on this thread
+        List<Mutation<?>> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            commit(leftover);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return writer != null;
+    }
+
+    private static final class Mutation<T> {
+        private final Supplier<T> action;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private T value;
+        private RuntimeException failure;
+
+        Mutation(Supplier<T> action) {
+            this.action = action;
+        }
+
+        void run(TransactionTemplate savepoint) {
+            try {
+                value = savepoint.execute(status -> action.get());
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+}
@@ -1,2 +1,4 @@
 DELETE FROM todos;
-DELETE FROM sqlite_sequence WHERE name='todos';
\ No newline at end of file
+DELETE FROM sqlite_sequence WHERE name='todos';
+-- The delete triggers count down from whatever the counters held, start them from zero
+UPDATE todos_meta SET total_count = 0, completed_count = 0 WHERE id = 1;
@@ -1,5 +1,43 @@
 CREATE TABLE IF NOT EXISTS todos (
 id INTEGER PRIMARY KEY AUTOINCREMENT,
 description TEXT NOT NULL,
-completed INTEGER NOT NULL DEFAULT 0
-);
\ No newline at end of file
+completed INTEGER NOT NULL DEFAULT 0,
+version INTEGER NOT NULL DEFAULT 0
+);
+
+-- Listing filters: completed in id order, and description prefix ranges (open todos get their own, smaller index)
+CREATE INDEX IF NOT EXISTS idx_todos_completed_id ON todos (completed, id);
+CREATE INDEX IF NOT EXISTS idx_todos_description ON todos (description);
+CREATE INDEX IF NOT EXISTS idx_todos_open_description ON todos (description) WHERE completed = 0;
+
+-- Single row of table-wide counters, maintained by triggers created in DatabaseConfig
+CREATE TABLE IF NOT EXISTS todos_meta (
+id INTEGER PRIMARY KEY CHECK (id = 1),
+change_count INTEGER NOT NULL DEFAULT 0,
+total_count INTEGER NOT NULL DEFAULT 0,
+completed_count INTEGER NOT NULL DEFAULT 0
+);
+
+INSERT OR IGNORE INTO todos_meta (id, change_count) VALUES (1, 0);
+
+-- Change feed: one row per write to todos, in commit order, appended by triggers created in DatabaseConfig
+CREATE TABLE IF NOT EXISTS todo_changes (
+seq INTEGER PRIMARY KEY AUTOINCREMENT,
+todo_id INTEGER NOT NULL,
+type TEXT NOT NULL
+);
+
+-- Idempotency-Key of each keyed POST /todos with the todo it created, kept for todos.idempotency.ttl.
+-- Keys are per client, as identified for rate limiting
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+client TEXT NOT NULL,
+key TEXT NOT NULL,
+todo_id INTEGER NOT NULL,
+description TEXT NOT NULL,
+completed INTEGER NOT NULL,
+version INTEGER NOT NULL,
+created_at INTEGER NOT NULL,
+PRIMARY KEY (client, key)
+) WITHOUT ROWID;
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,80 @@
+package dev.jleenksystem.todolist.config;
+
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoStats;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A database of its own, restoring over test.db would pull it from under the other test contexts
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:target/restore-test.db",
+        "todos.backup.restore-from=target/restore-test-snapshot.db"
+})
+@ActiveProfiles("test")
+class DatabaseRestoreTest {
+
+    @Autowired
+    TodoRepository repository;
+
+    @Autowired
+    DatabaseConfig databaseConfig;
+
+    // A snapshot from before the version column and the counters, so the migrations run on the restored database
+    @BeforeAll
+    static void createSnapshot() throws Exception {
+        Files.createDirectories(Path.of("target"));
+        for (String file : new String[] {"restore-test.db", "restore-test.db-wal", "restore-test.db-shm",
+                "restore-test-snapshot.db", "restore-test-snapshot.db.restored"}) {
+            Files.deleteIfExists(Path.of("target", file));
+        }
+        try (Connection con = DriverManager.getConnection("jdbc:sqlite:target/restore-test-snapshot.db");
+             Statement statement = con.createStatement()) {
+            statement.execute("CREATE TABLE todos (id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                    + "description TEXT NOT NULL, completed INTEGER NOT NULL)");
+            statement.execute("INSERT INTO todos (description, completed) VALUES "
+                    + "('Restored 1', 0), ('Restored 2', 1), ('Restored 3', 0)");
+        }
+    }
+
+    @Test
+    void startup_replacesTheDatabaseWithTheSnapshot() {
+        assertThat(repository.findAll()).extracting(Todo::getDescription)
+                .containsExactlyInAnyOrder("Restored 1", "Restored 2", "Restored 3");
+        assertThat(repository.stats()).extracting(TodoStats::getTotal, TodoStats::getCompleted).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void startup_renamesTheSnapshotSoItIsRestoredOnce() {
+        assertThat(Path.of("target", "restore-test-snapshot.db")).doesNotExist();
+        assertThat(Path.of("target", "restore-test-snapshot.db.restored")).isRegularFile();
+    }
+
+    @Test
+    void restart_keepsWritesMadeAfterTheRestore() throws Exception {
+        Todo written = repository.save(new Todo(null, "Written after the restore", false));
+
+        databaseConfig.afterPropertiesSet();
+
+        assertThat(repository.findById(written.getId())).isPresent();
+        // The other tests expect exactly the snapshot's rows
+        repository.delete(written.getId());
+    }
+
+    @Test
+    void startup_migratesTheRestoredDatabase() {
+        // The snapshot has no version column, reading todos fails unless it was added after the restore
+        assertThat(repository.findAll()).extracting(Todo::getVersion).containsOnly(0L);
+    }
+}
@@ -0,0 +1,99 @@
+package dev.jleenksystem.todolist.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PinnedCallLimitTest {
+
+    private static <T> T onVirtualThread(Callable<T> task) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executor.submit(task).get();
+        }
+    }
+
+    @Test
+    void permits_leaveOneCarrierFree() {
+        assertThat(PinnedCallLimit.permits(8)).isEqualTo(7);
+        assertThat(PinnedCallLimit.permits(2)).isEqualTo(1);
+    }
+
+    @Test
+    void virtualThread_takesOnePermitHoweverManyConnectionsItHolds() throws Exception {
+        PinnedCallLimit limit = new PinnedCallLimit(1);
+
+        int whileHeld = onVirtualThread(() -> {
+            limit.acquire(10);
+            limit.acquire(10);
+            limit.release();
+            int available = limit.availablePermits();
+            limit.release();
+            return available;
+        });
+
+        assertThat(whileHeld).isZero();
+        assertThat(limit.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void platformThread_takesNoPermit() throws Exception {
+        PinnedCallLimit limit = new PinnedCallLimit(1);
+
+        limit.acquire(10);
+
+        assertThat(limit.availablePermits()).isEqualTo(1);
+        limit.release();
+    }
+
+    @Test
+    void dataSource_holdsThePermitUntilTheConnectionIsClosed() throws Exception {
+        PinnedCallLimit limit = new PinnedCallLimit(1);
+        try (PinnedCallLimitedDataSource dataSource = new PinnedCallLimitedDataSource(limit)) {
+            dataSource.setJdbcUrl("jdbc:sqlite::memory:");
+            dataSource.setMaximumPoolSize(2);
+
+            int whileOpen = onVirtualThread(() -> {
+                Connection connection = dataSource.getConnection();
+                int available = limit.availablePermits();
+                connection.close();
+                connection.close();
+                return available;
+            });
+
+            assertThat(whileOpen).isZero();
+            assertThat(limit.availablePermits()).isEqualTo(1);
+        }
+    }
+
+    // ============================
+    // Negative tests
+    // ============================
+
+    @Test
+    void permits_singleCarrier_refusesVirtualThreads() {
+        assertThatThrownBy(() -> PinnedCallLimit.permits(1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("jdk.virtualThreadScheduler.parallelism");
+    }
+
+    @Test
+    void acquire_noPermitLeft_timesOut() throws Exception {
+        PinnedCallLimit limit = new PinnedCallLimit(1);
+        onVirtualThread(() -> {
+            limit.acquire(10);
+            return null;
+        });
+
+        assertThatThrownBy(() -> onVirtualThread(() -> {
+            limit.acquire(10);
+            return null;
+        })).hasCauseInstanceOf(SQLException.class);
+    }
+}
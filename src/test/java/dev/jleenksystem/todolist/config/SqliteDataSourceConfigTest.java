@@ -0,0 +1,57 @@
+package dev.jleenksystem.todolist.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SqliteDataSourceConfigTest {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("readJdbcTemplate")
+    JdbcTemplate readJdbcTemplate;
+
+    @Autowired
+    @Qualifier("writeDataSource")
+    HikariDataSource writeDataSource;
+
+    @Test
+    void writer_usesWalAndConfiguredPragmas() {
+        assertThat(jdbcTemplate.queryForObject("PRAGMA journal_mode", String.class)).isEqualToIgnoringCase("wal");
+        // 1 = NORMAL
+        assertThat(jdbcTemplate.queryForObject("PRAGMA synchronous", Integer.class)).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("PRAGMA busy_timeout", Integer.class)).isEqualTo(5000);
+    }
+
+    @Test
+    void writer_isSingleConnection() {
+        assertThat(writeDataSource.getMaximumPoolSize()).isEqualTo(1);
+    }
+
+    @Test
+    void pools_neverRetireConnectionsAndCacheStatements() {
+        assertThat(writeDataSource.getMaxLifetime()).isZero();
+        assertThat(writeDataSource.getDataSource()).isInstanceOf(StatementCachingDataSource.class);
+    }
+
+    @Test
+    void reader_rejectsWrites() {
+        assertThat(readJdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos", Integer.class)).isNotNull();
+
+        assertThatThrownBy(() -> readJdbcTemplate.update("INSERT INTO todos (description, completed) VALUES ('x', 0)"))
+                .isInstanceOf(DataAccessException.class);
+    }
+}
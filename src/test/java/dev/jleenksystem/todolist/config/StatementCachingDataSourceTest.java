@@ -0,0 +1,97 @@
+package dev.jleenksystem.todolist.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sqlite.SQLiteDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StatementCachingDataSourceTest {
+
+    private SQLiteDataSource sqlite;
+
+    @BeforeEach
+    void setup() {
+        sqlite = new SQLiteDataSource();
+        sqlite.setUrl("jdbc:sqlite::memory:");
+    }
+
+    private static long queryLong(PreparedStatement ps, long arg) throws SQLException {
+        ps.setLong(1, arg);
+        try (ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Test
+    void prepareStatement_afterClose_reusesTheStatement() throws Exception {
+        try (Connection con = new StatementCachingDataSource(sqlite, 8).getConnection()) {
+            PreparedStatement first = con.prepareStatement("SELECT ? + 1");
+            assertThat(queryLong(first, 1)).isEqualTo(2);
+            first.close();
+            assertThat(first.isClosed()).isTrue();
+
+            PreparedStatement second = con.prepareStatement("SELECT ? + 1");
+            assertThat(second).isSameAs(first);
+            assertThat(second.isClosed()).isFalse();
+            assertThat(queryLong(second, 41)).isEqualTo(42);
+            assertThat(second.getConnection()).isSameAs(con);
+            second.close();
+        }
+    }
+
+    @Test
+    void prepareStatement_whileOpen_preparesAnotherOne() throws Exception {
+        try (Connection con = new StatementCachingDataSource(sqlite, 8).getConnection();
+             PreparedStatement outer = con.prepareStatement("SELECT ? * 2");
+             PreparedStatement inner = con.prepareStatement("SELECT ? * 2")) {
+            assertThat(inner).isNotSameAs(outer);
+            assertThat(queryLong(outer, 2)).isEqualTo(4);
+            assertThat(queryLong(inner, 3)).isEqualTo(6);
+        }
+    }
+
+    @Test
+    void prepareStatement_overCapacity_dropsTheLeastRecentlyUsed() throws Exception {
+        try (Connection con = new StatementCachingDataSource(sqlite, 1).getConnection()) {
+            PreparedStatement first = con.prepareStatement("SELECT 1");
+            first.close();
+            con.prepareStatement("SELECT 2").close();
+
+            assertThat(con.prepareStatement("SELECT 1")).isNotSameAs(first);
+        }
+    }
+
+    // ============================
+    // Negative tests
+    // ============================
+
+    @Test
+    void closedStatement_rejectsUse() throws Exception {
+        try (Connection con = new StatementCachingDataSource(sqlite, 8).getConnection()) {
+            PreparedStatement statement = con.prepareStatement("SELECT ?");
+            statement.close();
+
+            assertThatThrownBy(() -> statement.setLong(1, 1)).isInstanceOf(SQLException.class);
+        }
+    }
+
+    @Test
+    void connectionClose_closesCachedStatements() throws Exception {
+        Connection con = new StatementCachingDataSource(sqlite, 8).getConnection();
+        PreparedStatement statement = con.prepareStatement("SELECT 1");
+        PreparedStatement target = statement.unwrap(PreparedStatement.class);
+        statement.close();
+
+        con.close();
+
+        assertThat(target.isClosed()).isTrue();
+    }
+}
@@ -1,23 +1,44 @@
 package dev.jleenksystem.todolist.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jleenksystem.todolist.config.RateLimitProperties;
 import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.dto.TodoImportReport;
+import dev.jleenksystem.todolist.dto.TodoPage;
+import dev.jleenksystem.todolist.exception.IdempotencyKeyMismatchException;
 import dev.jleenksystem.todolist.exception.TodoNotFoundException;
+import dev.jleenksystem.todolist.exception.TodoVersionMismatchException;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoStats;
+import dev.jleenksystem.todolist.ratelimit.ClientIdResolver;
+import dev.jleenksystem.todolist.service.IdempotentResult;
+import dev.jleenksystem.todolist.service.TodoCursor;
+import dev.jleenksystem.todolist.service.TodoExportService;
+import dev.jleenksystem.todolist.service.TodoImportService;
 import dev.jleenksystem.todolist.service.TodoService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +51,15 @@ class TodoControllerTest {
     @Mock
     private TodoService service;
 
+    @Mock
+    private TodoExportService exportService;
+
+    @Mock
+    private TodoImportService importService;
+
+    @Spy
+    private ClientIdResolver clientIds = new ClientIdResolver(new RateLimitProperties());
+
     @InjectMocks
     private TodoController controller;
 
@@ -54,10 +84,11 @@ class TodoControllerTest {
                 new TodoDto(2L, "Test 2", true)
         );
 
-        when(service.getAll()).thenReturn(todos);
+        when(service.getAll()).thenReturn(new TodoPage(todos, null));
 
         mockMvc.perform(get("/todos"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Link"))
                 .andExpect(jsonPath("$[0].id").value(1L))
                 .andExpect(jsonPath("$[0].description").value("Test 1"))
                 .andExpect(jsonPath("$[1].completed").value(true));
@@ -65,6 +96,148 @@ class TodoControllerTest {
         verify(service).getAll();
     }
 
+    @Test
+    void getAll_overMaxSize_linksToTheNextPage() throws Exception {
+        String cursor = TodoCursor.encode(1L);
+        when(service.getAll()).thenReturn(new TodoPage(List.of(new TodoDto(1L, "Test 1", false)), cursor));
+
+        mockMvc.perform(get("/todos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Link", "</todos?cursor=" + cursor + ">; rel=\"next\""))
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    void getAll_matchingIfNoneMatch_returns304WithoutQuerying() throws Exception {
+        when(service.changeCount()).thenReturn(42L);
+
+        mockMvc.perform(get("/todos").header("If-None-Match", "\"c42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"c42\""))
+                .andExpect(content().string(""));
+
+        verify(service, never()).getAll();
+    }
+
+    @Test
+    void getAll_staleIfNoneMatch_returnsListWithNewEtag() throws Exception {
+        when(service.changeCount()).thenReturn(43L);
+        when(service.getAll()).thenReturn(new TodoPage(List.of(new TodoDto(1L, "Test 1", false)), null));
+
+        mockMvc.perform(get("/todos").header("If-None-Match", "\"c42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"c43\""))
+                .andExpect(jsonPath("$[0].id").value(1L));
+    }
+
+    @Test
+    void getById_matchingIfNoneMatch_returns304() throws Exception {
+        TodoDto todo = new TodoDto(5L, "Hello", false);
+        todo.setVersion(2L);
+        when(service.getById(5L)).thenReturn(todo);
+
+        mockMvc.perform(get("/todos/5").header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getPage_afterId_returnsPageWithCursor() throws Exception {
+        TodoPage page = new TodoPage(List.of(new TodoDto(6L, "Test 6", false)), TodoCursor.encode(6L));
+
+        when(service.getPage(any(TodoFilter.class), eq(5L), eq(1))).thenReturn(page);
+
+        mockMvc.perform(get("/todos").param("after", "5").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(6L))
+                .andExpect(jsonPath("$.nextCursor").value(TodoCursor.encode(6L)));
+
+        verify(service).getPage(any(TodoFilter.class), eq(5L), eq(1));
+        verify(service, never()).getAll();
+    }
+
+    @Test
+    void getPage_withCursor_resumesAfterEncodedId() throws Exception {
+        when(service.getPage(any(TodoFilter.class), eq(6L), eq(TodoService.DEFAULT_PAGE_SIZE))).thenReturn(new TodoPage(List.of(), null));
+
+        mockMvc.perform(get("/todos").param("cursor", TodoCursor.encode(6L)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty());
+
+        verify(service).getPage(any(TodoFilter.class), eq(6L), eq(TodoService.DEFAULT_PAGE_SIZE));
+    }
+
+    @Test
+    void getPage_withFilters_passesThemToService() throws Exception {
+        when(service.getPage(any(TodoFilter.class), isNull(), eq(TodoService.DEFAULT_PAGE_SIZE)))
+                .thenReturn(new TodoPage(List.of(), null));
+
+        mockMvc.perform(get("/todos").param("completed", "false").param("prefix", "Buy").param("order", "desc"))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<TodoFilter> filter = ArgumentCaptor.forClass(TodoFilter.class);
+        verify(service).getPage(filter.capture(), isNull(), eq(TodoService.DEFAULT_PAGE_SIZE));
+        assertThat(filter.getValue().getCompleted()).isFalse();
+        assertThat(filter.getValue().getDescriptionPrefix()).isEqualTo("Buy");
+        assertThat(filter.getValue().isDescending()).isTrue();
+        verify(service, never()).getAll();
+    }
+
+    @Test
+    void getStats_returnsCounts() throws Exception {
+        when(service.changeCount()).thenReturn(7L);
+        when(service.getStats()).thenReturn(new TodoStats(5, 2));
+
+        mockMvc.perform(get("/todos/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"c7\""))
+                .andExpect(jsonPath("$.total").value(5))
+                .andExpect(jsonPath("$.completed").value(2))
+                .andExpect(jsonPath("$.open").value(3));
+    }
+
+    @Test
+    void getStats_matchingIfNoneMatch_returns304() throws Exception {
+        when(service.changeCount()).thenReturn(7L);
+
+        mockMvc.perform(get("/todos/stats").header("If-None-Match", "\"c7\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).getStats();
+    }
+
+    @Test
+    void search_delegatesToService() throws Exception {
+        when(service.search("buy mil*", 5, 10)).thenReturn(List.of(new TodoDto(3L, "Buy milk", false)));
+
+        mockMvc.perform(get("/todos/search").param("q", "buy mil*").param("limit", "5").param("offset", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(3L));
+
+        verify(service).search("buy mil*", 5, 10);
+    }
+
+    @Test
+    void stream_writesNdjsonBody() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).writeNdjson(any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/todos/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
+
+        verify(exportService).writeNdjson(any(OutputStream.class));
+        verifyNoInteractions(service);
+    }
+
     @Test
     void getById_existingTodo_returnsTodo() throws Exception {
         TodoDto todo = new TodoDto(5L, "Hello", false);
@@ -98,6 +271,46 @@ class TodoControllerTest {
         verify(service).create(any(TodoDto.class));
     }
 
+    @Test
+    void create_withIdempotencyKey_marksReplayedResponses() throws Exception {
+        TodoDto request = new TodoDto(null, "New", false);
+        when(service.create(any(TodoDto.class), eq("127.0.0.1"), eq("key-1")))
+                .thenReturn(new IdempotentResult<>(new TodoDto(10L, "New", false), false))
+                .thenReturn(new IdempotentResult<>(new TodoDto(10L, "New", false), true));
+
+        mockMvc.perform(post("/todos").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(jsonPath("$.id").value(10L));
+
+        mockMvc.perform(post("/todos").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(10L));
+
+        verify(service, never()).create(any(TodoDto.class));
+    }
+
+    @Test
+    void import_csvBody_returnsReport() throws Exception {
+        when(importService.importCsv(any())).thenReturn(new TodoImportReport(2, 1,
+                List.of(new TodoImportReport.Rejection(3, "description must not be blank"))));
+
+        mockMvc.perform(post("/todos/import")
+                        .contentType("text/csv")
+                        .content("description,completed\nA,true\n,false\nB,\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ingested").value(2))
+                .andExpect(jsonPath("$.rejected").value(1))
+                .andExpect(jsonPath("$.rejections[0].line").value(3));
+
+        verify(importService, never()).importNdjson(any());
+    }
+
     @Test
     void update_returnsUpdatedTodo() throws Exception {
         TodoDto request = new TodoDto(null, "Updated", true);
@@ -116,6 +329,97 @@ class TodoControllerTest {
         verify(service).patch(eq(3L), any(TodoDto.class));
     }
 
+    @Test
+    void update_withIfMatch_passesVersionAndReturnsEtag() throws Exception {
+        TodoDto request = new TodoDto(null, null, true);
+        TodoDto updated = new TodoDto(3L, "Old", true);
+        updated.setVersion(5L);
+
+        when(service.patch(eq(3L), any(TodoDto.class), eq(Set.of(4L)))).thenReturn(updated);
+
+        mockMvc.perform(patch("/todos/3")
+                        .header("If-Match", "\"4\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+
+        verify(service).patch(eq(3L), any(TodoDto.class), eq(Set.of(4L)));
+    }
+
+    @Test
+    void update_withIfMatchList_passesEveryStrongVersion() throws Exception {
+        TodoDto updated = new TodoDto(3L, "Old", true);
+        updated.setVersion(3L);
+
+        when(service.patch(eq(3L), any(TodoDto.class), eq(Set.of(1L, 2L)))).thenReturn(updated);
+
+        // Weak and foreign tags never match, but do not make the list invalid
+        mockMvc.perform(patch("/todos/3")
+                        .header("If-Match", "\"1\", W/\"5\",\"2\" , \"other\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoDto(null, null, true))))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+    }
+
+    @Test
+    void update_withIfMatchStar_patchesAnyVersion() throws Exception {
+        TodoDto updated = new TodoDto(3L, "Old", true);
+        updated.setVersion(8L);
+
+        when(service.patch(eq(3L), any(TodoDto.class))).thenReturn(updated);
+
+        mockMvc.perform(patch("/todos/3")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoDto(null, null, true))))
+                .andExpect(status().isOk());
+
+        verify(service).patch(eq(3L), any(TodoDto.class));
+    }
+
+    @Test
+    void createBatch_returnsCreatedTodos() throws Exception {
+        List<TodoDto> request = List.of(new TodoDto(null, "A", false), new TodoDto(null, "B", true));
+        List<TodoDto> saved = List.of(new TodoDto(11L, "A", false), new TodoDto(12L, "B", true));
+
+        when(service.createAll(anyList())).thenReturn(saved);
+
+        mockMvc.perform(post("/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(11L))
+                .andExpect(jsonPath("$[1].id").value(12L));
+
+        verify(service).createAll(anyList());
+    }
+
+    @Test
+    void updateBatch_returnsUpdatedTodos() throws Exception {
+        List<TodoDto> request = List.of(new TodoDto(3L, null, true));
+
+        when(service.patchAll(anyList())).thenReturn(List.of(new TodoDto(3L, "Old", true)));
+
+        mockMvc.perform(patch("/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].completed").value(true));
+
+        verify(service).patchAll(anyList());
+    }
+
+    @Test
+    void deleteBatch_returnsNoContent() throws Exception {
+        mockMvc.perform(delete("/todos/batch").param("ids", "1,2,3"))
+                .andExpect(status().isNoContent());
+
+        verify(service).deleteAll(List.of(1L, 2L, 3L));
+    }
+
     @Test
     void delete_returnsNoContent() throws Exception {
         doNothing().when(service).delete(7L);
@@ -161,6 +465,90 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.error").value("Not Found"));
     }
 
+    // ============================
+    // Negative tests (412 Precondition Failed)
+    // ============================
+
+    @Test
+    void update_staleIfMatch_returns412() throws Exception {
+        TodoDto request = new TodoDto(null, "Updated", true);
+        when(service.patch(eq(3L), any(TodoDto.class), eq(Set.of(1L))))
+                .thenThrow(new TodoVersionMismatchException("Todo was modified"));
+
+        mockMvc.perform(patch("/todos/3")
+                        .header("If-Match", "\"1\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Precondition Failed"));
+    }
+
+    // ============================
+    // Negative tests (422 Unprocessable Entity)
+    // ============================
+
+    @Test
+    void create_idempotencyKeyReusedWithOtherBody_returns422() throws Exception {
+        when(service.create(any(TodoDto.class), eq("127.0.0.1"), eq("key-1")))
+                .thenThrow(new IdempotencyKeyMismatchException("Idempotency-Key was already used with a different request"));
+
+        mockMvc.perform(post("/todos").header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TodoDto(null, "Other", false))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("Unprocessable Entity"));
+    }
+
+    // ============================
+    // Negative tests (400 Bad Request)
+    // ============================
+
+    @Test
+    void createBatch_blankDescription_returns400() throws Exception {
+        List<TodoDto> request = List.of(new TodoDto(null, "A", false), new TodoDto(null, " ", false));
+
+        mockMvc.perform(post("/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Validation Failed"))
+                .andExpect(jsonPath("$.details[0].field").value("[1].description"));
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void getPage_invalidCursor_returns400() throws Exception {
+        mockMvc.perform(get("/todos").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void getPage_unknownOrder_returns400() throws Exception {
+        mockMvc.perform(get("/todos").param("order", "sideways"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("order must be asc or desc"));
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void update_malformedIfMatch_returns400() throws Exception {
+        for (String ifMatch : List.of("4", "\"4\" \"5\"", "\"4", "*, \"4\"", "W/4")) {
+            mockMvc.perform(patch("/todos/3")
+                            .header("If-Match", ifMatch)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new TodoDto(null, "Updated", true))))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Bad Request"));
+        }
+
+        verifyNoInteractions(service);
+    }
+
     // ============================
     // Negative tests (500 Internal Server Error)
     // ============================
@@ -1,6 +1,12 @@
 package dev.jleenksystem.todolist.integration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import dev.jleenksystem.todolist.dto.TodoChangePage;
 import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.dto.TodoImportReport;
+import dev.jleenksystem.todolist.dto.TodoPage;
 import dev.jleenksystem.todolist.model.Todo;
 import dev.jleenksystem.todolist.repository.TodoRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,11 +18,35 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.*;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+// The backups endpoint is off unless exposed
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "management.endpoints.web.exposure.include=health,backups")
 @ActiveProfiles("test")
 class TodoApiIntegrationTest {
 
@@ -56,6 +86,89 @@ class TodoApiIntegrationTest {
         assertThat(List.of(todos)).extracting("description").containsExactlyInAnyOrder("Test 1", "Test 2");
     }
 
+    @Test
+    void getAll_withAcceptEncodingGzip_returnsCompressedList() throws Exception {
+        repository.saveAll(IntStream.rangeClosed(1, 100).mapToObj(i -> new Todo(null, "Compressed " + i, false)).toList());
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl)).header("Accept-Encoding", "gzip").build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+            assertThat(response.headers().firstValue("Content-Encoding")).contains("gzip");
+            byte[] json = new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes();
+            assertThat(json.length).isGreaterThan(response.body().length * 3);
+            assertThat(new ObjectMapper().readValue(json, TodoDto[].class)).hasSize(100);
+        }
+    }
+
+    @Test
+    void getAll_withAcceptCbor_returnsBinaryList() throws Exception {
+        repository.save(new Todo(null, "Binary", true));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl)).header("Accept", "application/cbor").build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+            assertThat(response.headers().firstValue("Content-Type")).contains("application/cbor");
+            TodoDto[] todos = new CBORMapper().readValue(response.body(), TodoDto[].class);
+            assertThat(todos).extracting(TodoDto::getDescription).containsExactly("Binary");
+        }
+    }
+
+    @Test
+    void getPage_withAcceptSmile_returnsBinaryPage() throws Exception {
+        repository.save(new Todo(null, "Smile", false));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "?limit=10"))
+                .header("Accept", "application/x-jackson-smile").build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+            TodoPage page = new SmileMapper().readValue(response.body(), TodoPage.class);
+            assertThat(page.getItems()).extracting(TodoDto::getDescription).containsExactly("Smile");
+        }
+    }
+
+    @Test
+    void getPage_withFilters_pagesMatchingTodosNewestFirst() {
+        Todo oldest = repository.save(new Todo(null, "Buy milk", false));
+        repository.save(new Todo(null, "Buy bread", true));
+        repository.save(new Todo(null, "Sell car", false));
+        Todo newest = repository.save(new Todo(null, "Buy eggs", false));
+
+        String query = baseUrl + "?completed=false&prefix=Buy&order=desc&limit=1";
+        TodoPage first = restTemplate.getForObject(query, TodoPage.class);
+        TodoPage second = restTemplate.getForObject(query + "&cursor=" + first.getNextCursor(), TodoPage.class);
+
+        assertThat(first.getItems()).extracting(TodoDto::getId).containsExactly(newest.getId());
+        assertThat(second.getItems()).extracting(TodoDto::getId).containsExactly(oldest.getId());
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAll_withCurrentEtag_returns304UntilSomethingChanges() {
+        repository.save(new Todo(null, "Test 1", false));
+
+        ResponseEntity<TodoDto[]> first = restTemplate.getForEntity(baseUrl, TodoDto[].class);
+        String etag = first.getHeaders().getETag();
+        assertThat(etag).isNotNull();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<TodoDto[]> unchanged = restTemplate.exchange(
+                baseUrl, HttpMethod.GET, new HttpEntity<>(headers), TodoDto[].class);
+        assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(unchanged.getBody()).isNull();
+
+        repository.save(new Todo(null, "Test 2", false));
+
+        ResponseEntity<TodoDto[]> changed = restTemplate.exchange(
+                baseUrl, HttpMethod.GET, new HttpEntity<>(headers), TodoDto[].class);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(etag);
+        assertThat(changed.getBody()).hasSize(2);
+    }
+
     @Test
     void getById_existingTodo_returnsTodo() {
         Todo todo = repository.save(new Todo(null, "Hello", false));
@@ -81,6 +194,110 @@ class TodoApiIntegrationTest {
         assertThat(created.getDescription()).isEqualTo("New");
     }
 
+    @Test
+    void create_retriedWithIdempotencyKey_createsOnce() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", UUID.randomUUID().toString());
+        HttpEntity<TodoDto> request = new HttpEntity<>(new TodoDto(null, "Once", false), headers);
+
+        ResponseEntity<TodoDto> first = restTemplate.postForEntity(baseUrl, request, TodoDto.class);
+        // The todo changing afterwards does not change the replayed response
+        restTemplate.exchange(baseUrl + "/" + first.getBody().getId(), HttpMethod.PATCH,
+                new HttpEntity<>(new TodoDto(null, null, true)), TodoDto.class);
+        ResponseEntity<TodoDto> retry = restTemplate.postForEntity(baseUrl, request, TodoDto.class);
+
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getBody().getId()).isEqualTo(first.getBody().getId());
+        assertThat(retry.getBody().getCompleted()).isFalse();
+        assertThat(repository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void import_csvExportedBefore_restoresTheTodos() {
+        repository.save(new Todo(null, "Exported, with a comma", true));
+        repository.save(new Todo(null, "Plain", false));
+        HttpHeaders accept = new HttpHeaders();
+        accept.setAccept(List.of(MediaType.parseMediaType("text/csv")));
+        String csv = restTemplate.exchange(baseUrl + "/stream", HttpMethod.GET, new HttpEntity<>(accept), String.class).getBody();
+        repository.findAll().forEach(todo -> repository.delete(todo.getId()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+        ResponseEntity<TodoImportReport> response = restTemplate.postForEntity(baseUrl + "/import",
+                new HttpEntity<>(csv + "\"\",false\n", headers), TodoImportReport.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().getIngested()).isEqualTo(2);
+        assertThat(response.getBody().getRejected()).isEqualTo(1);
+        assertThat(repository.findAll()).extracting(Todo::getDescription, Todo::isCompleted)
+                .containsExactly(tuple("Exported, with a comma", true), tuple("Plain", false));
+    }
+
+    @Test
+    void import_ndjson_insertsEveryValidLine() {
+        String body = IntStream.rangeClosed(1, 250)
+                .mapToObj(i -> "{\"description\":\"Imported " + i + "\"}\n")
+                .reduce("", String::concat);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        TodoImportReport report = restTemplate.postForObject(baseUrl + "/import",
+                new HttpEntity<>(body, headers), TodoImportReport.class);
+
+        assertThat(report.getIngested()).isEqualTo(250);
+        assertThat(repository.findAll()).hasSize(250).allMatch(todo -> !todo.isCompleted());
+    }
+
+    @Test
+    void create_concurrentRequests_returnUniqueAndCorrectIds() throws Exception {
+        int threads = 16;
+        int requestsPerThread = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<TodoDto>> calls = new ArrayList<>();
+            for (int i = 0; i < threads * requestsPerThread; i++) {
+                TodoDto request = new TodoDto(null, "Concurrent " + i, i % 2 == 0);
+                calls.add(() -> {
+                    ResponseEntity<TodoDto> response = restTemplate.postForEntity(baseUrl, request, TodoDto.class);
+                    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+                    return response.getBody();
+                });
+            }
+
+            Set<Long> ids = new HashSet<>();
+            for (Future<TodoDto> future : executor.invokeAll(calls)) {
+                TodoDto created = future.get();
+                assertThat(ids.add(created.getId())).as("id %s returned twice", created.getId()).isTrue();
+
+                // The returned id must point at the row this request inserted
+                Todo stored = repository.findById(created.getId()).orElseThrow();
+                assertThat(stored.getDescription()).isEqualTo(created.getDescription());
+                assertThat(stored.isCompleted()).isEqualTo(created.getCompleted());
+            }
+            assertThat(ids).hasSize(threads * requestsPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void createBatch_returnsCreatedTodosWithIds() {
+        List<TodoDto> request = List.of(new TodoDto(null, "Batch 1", false), new TodoDto(null, "Batch 2", true));
+
+        ResponseEntity<TodoDto[]> response = restTemplate.postForEntity(baseUrl + "/batch", request, TodoDto[].class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        TodoDto[] created = response.getBody();
+        assertThat(created).hasSize(2);
+        for (TodoDto dto : created) {
+            assertThat(repository.findById(dto.getId())).get()
+                    .extracting(Todo::getDescription).isEqualTo(dto.getDescription());
+        }
+    }
+
     @Test
     void update_returnsUpdatedTodo() {
         Todo todo = repository.save(new Todo(null, "Old", false));
@@ -96,6 +313,55 @@ class TodoApiIntegrationTest {
         assertThat(updated.getCompleted()).isTrue();
     }
 
+    @Test
+    void update_concurrentPatchesOfDifferentFields_areBothApplied() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 20; i++) {
+                Todo todo = repository.save(new Todo(null, "Old", false));
+                String url = baseUrl + "/" + todo.getId();
+                List<Callable<HttpStatusCode>> calls = List.of(
+                        () -> restTemplate.exchange(url, HttpMethod.PATCH,
+                                new HttpEntity<>(new TodoDto(null, "Renamed", null)), TodoDto.class).getStatusCode(),
+                        () -> restTemplate.exchange(url, HttpMethod.PATCH,
+                                new HttpEntity<>(new TodoDto(null, null, true)), TodoDto.class).getStatusCode());
+
+                for (Future<HttpStatusCode> future : executor.invokeAll(calls)) {
+                    assertThat(future.get()).isEqualTo(HttpStatus.OK);
+                }
+
+                Todo stored = repository.findById(todo.getId()).orElseThrow();
+                assertThat(stored.getDescription()).isEqualTo("Renamed");
+                assertThat(stored.isCompleted()).isTrue();
+                assertThat(stored.getVersion()).isEqualTo(2L);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void update_withIfMatch_rejectsStaleVersion() {
+        Todo todo = repository.save(new Todo(null, "Old", false));
+        String url = baseUrl + "/" + todo.getId();
+
+        ResponseEntity<TodoDto> read = restTemplate.getForEntity(url, TodoDto.class);
+        String etag = read.getHeaders().getETag();
+        assertThat(etag).isEqualTo("\"0\"");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(etag);
+        ResponseEntity<TodoDto> first = restTemplate.exchange(url, HttpMethod.PATCH,
+                new HttpEntity<>(new TodoDto(null, "First", null), headers), TodoDto.class);
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(first.getHeaders().getETag()).isEqualTo("\"1\"");
+
+        ResponseEntity<String> second = restTemplate.exchange(url, HttpMethod.PATCH,
+                new HttpEntity<>(new TodoDto(null, "Second", null), headers), String.class);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertThat(repository.findById(todo.getId())).get().extracting(Todo::getDescription).isEqualTo("First");
+    }
+
     @Test
     void delete_returnsNoContent() {
         Todo todo = repository.save(new Todo(null, "To delete", false));
@@ -107,6 +373,73 @@ class TodoApiIntegrationTest {
         assertThat(repository.findById(todo.getId())).isEmpty();
     }
 
+    @Test
+    void changes_afterWrites_listsThemInOrder() {
+        long since = restTemplate.getForObject(baseUrl + "/changes", TodoChangePage.class).getLastSeq();
+
+        TodoDto created = restTemplate.postForObject(baseUrl, new TodoDto(null, "Followed", false), TodoDto.class);
+        restTemplate.exchange(baseUrl + "/" + created.getId(), HttpMethod.PATCH,
+                new HttpEntity<>(new TodoDto(null, null, true)), TodoDto.class);
+        restTemplate.delete(baseUrl + "/" + created.getId());
+
+        TodoChangePage page = restTemplate.getForObject(baseUrl + "/changes?since=" + since, TodoChangePage.class);
+
+        assertThat(page.getChanges()).extracting("id", "type").containsExactly(
+                tuple(created.getId(), "created"), tuple(created.getId(), "updated"), tuple(created.getId(), "deleted"));
+        assertThat(page.getLastSeq()).isEqualTo(page.getChanges().get(2).getSeq());
+    }
+
+    @Test
+    void streamChanges_sendsNewChangesAsEvents() throws Exception {
+        long since = restTemplate.getForObject(baseUrl + "/changes", TodoChangePage.class).getLastSeq();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/changes?since=" + since))
+                .header("Accept", "text/event-stream").build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<Stream<String>> response = client.send(request, HttpResponse.BodyHandlers.ofLines());
+            assertThat(response.statusCode()).isEqualTo(200);
+
+            TodoDto created = restTemplate.postForObject(baseUrl, new TodoDto(null, "Streamed", false), TodoDto.class);
+
+            try (Stream<String> lines = response.body()) {
+                String data = lines.filter(line -> line.startsWith("data:")).findFirst().orElseThrow();
+                assertThat(data).contains("\"id\":" + created.getId()).contains("\"type\":\"created\"")
+                        .contains("Streamed");
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backup_writesAConsistentSnapshot() throws Exception {
+        repository.save(new Todo(null, "Backed up 1", false));
+        repository.save(new Todo(null, "Backed up 2", true));
+        String backups = "http://localhost:" + port + "/actuator/backups";
+
+        ResponseEntity<Map> started = restTemplate.postForEntity(backups, null, Map.class);
+        assertThat(started.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+        Map<String, Object> job = started.getBody();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while ("running".equals(job.get("status")) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = restTemplate.getForObject(backups + "/" + job.get("id"), Map.class);
+        }
+
+        assertThat(job).containsEntry("status", "completed").containsEntry("progress", 100);
+        assertThat(((Number) job.get("sizeBytes")).longValue()).isPositive();
+        // Only the name is returned, the directory is todos.backup.directory from the test profile
+        assertThat((String) job.get("file")).doesNotContain("/");
+        try (Connection snapshot = DriverManager.getConnection("jdbc:sqlite:target/backups/" + job.get("file"));
+             ResultSet rs = snapshot.createStatement().executeQuery("SELECT description FROM todos ORDER BY id")) {
+            List<String> descriptions = new ArrayList<>();
+            while (rs.next()) {
+                descriptions.add(rs.getString(1));
+            }
+            assertThat(descriptions).containsExactly("Backed up 1", "Backed up 2");
+        }
+    }
+
     // ============================
     // Negative tests (404 Not Found)
     // ============================
@@ -129,6 +462,19 @@ class TodoApiIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void updateBatch_withMissingId_returns404AndRollsBack() {
+        Todo todo = repository.save(new Todo(null, "Old", false));
+        List<TodoDto> request = List.of(new TodoDto(todo.getId(), "Updated", true), new TodoDto(9999L, "Missing", true));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                baseUrl + "/batch", HttpMethod.PATCH, new HttpEntity<>(request), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(repository.findById(todo.getId())).get()
+                .extracting(Todo::getDescription).isEqualTo("Old");
+    }
+
     @Test
     void delete_notFound_returns404() {
         ResponseEntity<Void> response = restTemplate.exchange(
@@ -137,6 +483,57 @@ class TodoApiIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void getBackup_unknownId_returns404() {
+        ResponseEntity<String> response = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/backups/9999", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    // ============================
+    // Negative tests (422 Unprocessable Entity)
+    // ============================
+
+    @Test
+    void create_idempotencyKeyReusedWithOtherBody_returns422() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("Idempotency-Key", UUID.randomUUID().toString());
+        restTemplate.postForEntity(baseUrl, new HttpEntity<>(new TodoDto(null, "First", false), headers), TodoDto.class);
+
+        ResponseEntity<String> response = restTemplate.postForEntity(baseUrl,
+                new HttpEntity<>(new TodoDto(null, "Second", false), headers), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(repository.findAll()).hasSize(1);
+    }
+
+    // ============================
+    // Negative tests (410 Gone)
+    // ============================
+
+    @Test
+    void changes_sinceAheadOfTheLog_returns410() {
+        long last = restTemplate.getForObject(baseUrl + "/changes", TodoChangePage.class).getLastSeq();
+
+        ResponseEntity<String> response = restTemplate.getForEntity(baseUrl + "/changes?since=" + (last + 1000), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.GONE);
+    }
+
+    @Test
+    void streamChanges_sinceAheadOfTheLog_returns410() throws Exception {
+        long last = restTemplate.getForObject(baseUrl + "/changes", TodoChangePage.class).getLastSeq();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/changes"))
+                .header("Accept", "text/event-stream").header("Last-Event-ID", Long.toString(last + 1000)).build();
+
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+
+            assertThat(response.statusCode()).isEqualTo(410);
+        }
+    }
+
     // ============================
     // Negative tests (500 Internal Server Error)
     // ============================
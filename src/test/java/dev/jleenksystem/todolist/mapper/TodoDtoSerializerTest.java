@@ -0,0 +1,53 @@
+package dev.jleenksystem.todolist.mapper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.dto.TodoPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.json.JsonTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@JsonTest
+class TodoDtoSerializerTest {
+
+    // Registered by Spring Boot
+    @Autowired
+    ObjectMapper objectMapper;
+
+    // Jackson's bean serializer, which the hand-written one replaces
+    private final ObjectMapper beanMapper = new ObjectMapper();
+
+    private static TodoDto todo(Long id, String description, Boolean completed) {
+        TodoDto dto = new TodoDto(id, description, completed);
+        dto.setVersion(3L);
+        return dto;
+    }
+
+    @Test
+    void serialize_writesTheSameJsonAsTheBeanSerializer() throws Exception {
+        List<TodoDto> todos = List.of(
+                todo(1L, "Buy milk", false),
+                todo(2L, "Say \"hi\" éè", true),
+                todo(null, null, null));
+
+        assertThat(objectMapper.writeValueAsString(todos)).isEqualTo(beanMapper.writeValueAsString(todos));
+        assertThat(objectMapper.writeValueAsString(new TodoPage(todos, "abc")))
+                .isEqualTo(beanMapper.writeValueAsString(new TodoPage(todos, "abc")));
+    }
+
+    @Test
+    void serialize_leavesTheVersionOut() throws Exception {
+        assertThat(objectMapper.writeValueAsString(todo(1L, "Buy milk", true)))
+                .isEqualTo("{\"id\":1,\"description\":\"Buy milk\",\"completed\":true}");
+    }
+
+    @Test
+    void objectMapper_usesTheSerializerForTodoDto() throws Exception {
+        assertThat(objectMapper.getSerializerProviderInstance().findValueSerializer(TodoDto.class))
+                .isInstanceOf(TodoDtoSerializer.class);
+    }
+}
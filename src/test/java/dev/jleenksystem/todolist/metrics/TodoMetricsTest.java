@@ -0,0 +1,80 @@
+package dev.jleenksystem.todolist.metrics;
+
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+import dev.jleenksystem.todolist.service.TodoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.sqlite.SQLiteErrorCode;
+import org.sqlite.SQLiteException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class TodoMetricsTest {
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    TodoRepository repository;
+
+    @Autowired
+    TodoService service;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    void repositoryAndServiceCalls_areTimed() {
+        Todo saved = repository.save(new Todo(null, "Timed", false));
+        service.getById(saved.getId());
+
+        assertThat(registry.get("todos.repository").tag("repository", "JdbcTodoRepository")
+                .tag("method", "save").tag("outcome", "success").timer().count()).isPositive();
+        assertThat(registry.get("todos.service").tag("method", "getById").tag("outcome", "success")
+                .timer().count()).isPositive();
+        assertThat(registry.get("todos.repository.rows").tag("method", "findById").summary().totalAmount())
+                .isPositive();
+    }
+
+    @Test
+    void responses_recordPayloadSize() {
+        repository.save(new Todo(null, "Measured", false));
+
+        ResponseEntity<String> response = restTemplate.getForEntity("/todos", String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(registry.get("todos.http.response.size").tag("method", "GET").tag("uri", "/todos")
+                .tag("status", "200").summary().max()).isEqualTo(response.getBody().length());
+    }
+
+    @Test
+    void prometheusEndpoint_exposesTodoAndPoolMetrics() {
+        repository.findAll();
+
+        String scrape = restTemplate.getForObject("/actuator/prometheus", String.class);
+
+        assertThat(scrape).contains("todos_repository_seconds_bucket", "todos_service_seconds_count",
+                "hikaricp_connections_acquire_seconds_count{pool=\"sqlite-writer\"}",
+                "hikaricp_connections_acquire_seconds_count{pool=\"sqlite-reader\"}");
+    }
+
+    @Test
+    void isBusy_findsSqliteBusyInTheCauseChain() {
+        SQLiteException busy = new SQLiteException("database is locked", SQLiteErrorCode.SQLITE_BUSY_SNAPSHOT);
+
+        assertThat(TodoMetricsAspect.isBusy(new CannotAcquireLockException("update", busy))).isTrue();
+        assertThat(TodoMetricsAspect.isBusy(new IllegalStateException("other"))).isFalse();
+    }
+}
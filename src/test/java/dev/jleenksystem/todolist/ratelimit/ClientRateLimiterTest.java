@@ -0,0 +1,90 @@
+package dev.jleenksystem.todolist.ratelimit;
+
+import dev.jleenksystem.todolist.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private SimpleMeterRegistry registry;
+    private ClientRateLimiter limiter;
+
+    @BeforeEach
+    void setup() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRequestsPerSecond(10);
+        properties.setBurst(5);
+        registry = new SimpleMeterRegistry();
+        limiter = new ClientRateLimiter(properties, registry, now::get);
+    }
+
+    @Test
+    void tryAcquire_allowsBurstThenWaitsForNextToken() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("a")).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_idleBucketRefillsOnlyUpToBurst() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void tryAcquire_clientsHaveTheirOwnBuckets() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("a");
+        }
+
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+        assertThat(registry.get("todos.ratelimit.clients").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void tryAcquire_concurrentCallers_neverExceedTheBurst() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Long>> calls = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                calls.add(executor.submit(() -> limiter.tryAcquire("a")));
+            }
+            int allowed = 0;
+            for (Future<Long> call : calls) {
+                if (call.get() == 0) {
+                    allowed++;
+                }
+            }
+            assertThat(allowed).isEqualTo(5);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
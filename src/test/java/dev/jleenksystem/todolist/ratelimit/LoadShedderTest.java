@@ -0,0 +1,88 @@
+package dev.jleenksystem.todolist.ratelimit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import dev.jleenksystem.todolist.config.LoadSheddingProperties;
+import dev.jleenksystem.todolist.service.TodoWriteQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class LoadShedderTest {
+
+    private LoadSheddingProperties properties;
+    private HikariPoolMXBean readPool;
+    private HikariPoolMXBean writePool;
+    private TodoWriteQueue writes;
+    private LoadShedder shedder;
+
+    @BeforeEach
+    void setup() {
+        properties = new LoadSheddingProperties();
+        properties.setEnabled(true);
+        properties.setMaxPoolWaiters(4);
+        properties.setMaxWriteQueueDepth(100);
+        readPool = mock(HikariPoolMXBean.class);
+        writePool = mock(HikariPoolMXBean.class);
+        writes = mock(TodoWriteQueue.class);
+        shedder = new LoadShedder(properties, pool(readPool), pool(writePool), writes);
+    }
+
+    private static HikariDataSource pool(HikariPoolMXBean bean) {
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(bean);
+        return dataSource;
+    }
+
+    @Test
+    void isOverloaded_belowThresholds_isFalse() {
+        when(readPool.getThreadsAwaitingConnection()).thenReturn(4);
+        when(writePool.getThreadsAwaitingConnection()).thenReturn(4);
+        when(writes.depth()).thenReturn(100);
+
+        assertThat(shedder.isOverloaded(false)).isFalse();
+        assertThat(shedder.isOverloaded(true)).isFalse();
+    }
+
+    @Test
+    void isOverloaded_readersQueuedForConnections_shedsReadsOnly() {
+        when(readPool.getThreadsAwaitingConnection()).thenReturn(5);
+
+        assertThat(shedder.isOverloaded(false)).isTrue();
+        assertThat(shedder.isOverloaded(true)).isFalse();
+    }
+
+    @Test
+    void isOverloaded_writersQueuedForTheWriter_shedsMutationsOnly() {
+        when(writePool.getThreadsAwaitingConnection()).thenReturn(5);
+
+        assertThat(shedder.isOverloaded(true)).isTrue();
+        assertThat(shedder.isOverloaded(false)).isFalse();
+    }
+
+    @Test
+    void isOverloaded_writeQueueBacklog_shedsMutationsOnly() {
+        when(writes.depth()).thenReturn(101);
+
+        assertThat(shedder.isOverloaded(true)).isTrue();
+        assertThat(shedder.isOverloaded(false)).isFalse();
+    }
+
+    @Test
+    void isOverloaded_poolNotStarted_isFalse() {
+        shedder = new LoadShedder(properties, mock(HikariDataSource.class), mock(HikariDataSource.class), writes);
+
+        assertThat(shedder.isOverloaded(false)).isFalse();
+        assertThat(shedder.isOverloaded(true)).isFalse();
+    }
+
+    @Test
+    void isOverloaded_disabled_isFalse() {
+        properties.setEnabled(false);
+        when(readPool.getThreadsAwaitingConnection()).thenReturn(50);
+
+        assertThat(shedder.isOverloaded(false)).isFalse();
+    }
+}
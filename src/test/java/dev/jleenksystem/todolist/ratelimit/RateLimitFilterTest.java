@@ -0,0 +1,140 @@
+package dev.jleenksystem.todolist.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jleenksystem.todolist.config.LoadSheddingProperties;
+import dev.jleenksystem.todolist.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private ClientRateLimiter limiter;
+    private LoadShedder shedder;
+    private RateLimitProperties properties;
+    private SimpleMeterRegistry registry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setup() {
+        limiter = mock(ClientRateLimiter.class);
+        shedder = mock(LoadShedder.class);
+        properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        registry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(limiter, new ClientIdResolver(properties), shedder, properties,
+                new LoadSheddingProperties(), new ObjectMapper(), registry);
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    @Test
+    void withinLimit_passesRequestOn() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/todos"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verify(limiter).tryAcquire("10.0.0.1");
+    }
+
+    @Test
+    void clientIdHeader_whenConfigured_takesPrecedenceOverTheAddress() throws Exception {
+        properties.setClientIdHeader("X-Client-Id");
+        MockHttpServletRequest request = request("/todos/1");
+        request.addHeader("X-Client-Id", "mobile-42");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(limiter).tryAcquire("mobile-42");
+    }
+
+    @Test
+    void clientIdHeader_notConfigured_isIgnored() throws Exception {
+        MockHttpServletRequest request = request("/todos/1");
+        request.addHeader("X-Client-Id", "made-up-" + System.nanoTime());
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(limiter).tryAcquire("10.0.0.1");
+    }
+
+    @Test
+    void writeBacklog_stillLetsReadsThrough() throws Exception {
+        when(shedder.isOverloaded(true)).thenReturn(true);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/todos"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verify(shedder).isOverloaded(false);
+    }
+
+    @Test
+    void otherPaths_areNotLimited() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/actuator/health"), new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        verifyNoInteractions(limiter, shedder);
+    }
+
+    // ============================
+    // Negative tests
+    // ============================
+
+    @Test
+    void overLimit_returns429WithRetryAfter() throws Exception {
+        when(limiter.tryAcquire("10.0.0.1")).thenReturn(TimeUnit.MILLISECONDS.toNanos(1500));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/todos"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(response.getContentAsString()).contains("\"error\":\"Too Many Requests\"");
+        assertThat(registry.get("todos.ratelimit.rejected").tag("reason", "rate_limited").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void overloaded_returns503WithoutTakingAToken() throws Exception {
+        when(shedder.isOverloaded(false)).thenReturn(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request("/todos"), response, chain);
+
+        assertThat(chain.getRequest()).isNull();
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(registry.get("todos.ratelimit.rejected").tag("reason", "overloaded").counter().count()).isEqualTo(1.0);
+        verifyNoInteractions(limiter);
+    }
+
+    @Test
+    void writeBacklog_returns503ForMutations() throws Exception {
+        when(shedder.isOverloaded(true)).thenReturn(true);
+        MockHttpServletRequest request = request("/todos");
+        request.setMethod("POST");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(503);
+    }
+}
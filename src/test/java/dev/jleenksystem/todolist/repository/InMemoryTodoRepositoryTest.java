@@ -0,0 +1,182 @@
+package dev.jleenksystem.todolist.repository;
+
+import dev.jleenksystem.todolist.config.EngineProperties;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoPatch;
+import dev.jleenksystem.todolist.model.TodoStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "todos.engine.type=memory",
+        // Flushed explicitly by the tests
+        "todos.engine.flush-interval=1h"
+})
+@ActiveProfiles("test")
+class InMemoryTodoRepositoryTest {
+
+    @Autowired
+    TodoRepository repository;
+
+    @Autowired
+    JdbcTodoRepository store;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Autowired
+    EngineProperties properties;
+
+    // The database is shared with the other test contexts, leave nothing pending
+    @AfterEach
+    void flush() {
+        ((InMemoryTodoRepository) repository).flush();
+    }
+
+    private int countInDatabase(Long id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos WHERE id = ?", Integer.class, id);
+    }
+
+    @Test
+    void repository_isTheMemoryEngine() {
+        assertThat(repository).isInstanceOf(InMemoryTodoRepository.class);
+    }
+
+    @Test
+    void save_isVisibleImmediatelyAndPersistedOnFlush() {
+        Todo saved = repository.save(new Todo(null, "In memory", false));
+
+        assertThat(repository.findById(saved.getId())).get().extracting(Todo::getDescription).isEqualTo("In memory");
+        assertThat(countInDatabase(saved.getId())).isZero();
+
+        ((InMemoryTodoRepository) repository).flush();
+
+        assertThat(countInDatabase(saved.getId())).isEqualTo(1);
+    }
+
+    @Test
+    void update_andDelete_arePersistedOnFlush() {
+        Todo kept = repository.save(new Todo(null, "Keep", false));
+        Todo removed = repository.save(new Todo(null, "Remove", false));
+        ((InMemoryTodoRepository) repository).flush();
+
+        assertThat(repository.update(kept.getId(), new Todo(null, "Kept", true))).isEqualTo(1);
+        assertThat(repository.delete(removed.getId())).isEqualTo(1);
+        ((InMemoryTodoRepository) repository).flush();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT description FROM todos WHERE id = ?", String.class, kept.getId()))
+                .isEqualTo("Kept");
+        assertThat(countInDatabase(removed.getId())).isZero();
+    }
+
+    @Test
+    void patchAll_withMissingId_changesNothing() {
+        Todo todo = repository.save(new Todo(null, "Original", false));
+
+        List<Long> missing = repository.patchAll(List.of(
+                new TodoPatch(todo.getId(), "Changed", true),
+                new TodoPatch(Long.MAX_VALUE, "Missing", true)));
+
+        assertThat(missing).containsExactly(Long.MAX_VALUE);
+        assertThat(repository.findById(todo.getId())).get().extracting(Todo::getDescription).isEqualTo("Original");
+    }
+
+    @Test
+    void findPage_readsInIdOrder() {
+        Todo first = repository.save(new Todo(null, "First", false));
+        Todo second = repository.save(new Todo(null, "Second", false));
+
+        assertThat(repository.findPage(TodoFilter.NONE, first.getId() - 1, 2)).extracting(Todo::getId)
+                .containsExactly(first.getId(), second.getId());
+    }
+
+    @Test
+    void findPage_filteredDescending_skipsNonMatchingRows() {
+        Todo open = repository.save(new Todo(null, "Buy milk", false));
+        repository.save(new Todo(null, "Buy bread", true));
+        repository.save(new Todo(null, "Sell car", false));
+
+        assertThat(repository.findPage(new TodoFilter(false, "Buy", true), null, 10))
+                .extracting(Todo::getId).containsExactly(open.getId());
+    }
+
+    @Test
+    void search_seesWritesNotYetFlushedWithoutFlushing() {
+        Todo todo = repository.save(new Todo(null, "Searchable unflushed todo", false));
+
+        assertThat(repository.search("unflushed", 10, 0)).extracting(Todo::getId).containsExactly(todo.getId());
+        assertThat(countInDatabase(todo.getId())).isZero();
+    }
+
+    @Test
+    void search_pendingEditsOverrideTheIndex() {
+        // Words of their own, the database keeps rows from earlier runs
+        String word = "zebra" + UUID.randomUUID().toString().replace("-", "");
+        Todo renamed = repository.save(new Todo(null, "Indexed " + word, false));
+        Todo deleted = repository.save(new Todo(null, "Indexed " + word + " too", false));
+        Todo kept = repository.save(new Todo(null, word + " kept", false));
+        ((InMemoryTodoRepository) repository).flush();
+
+        repository.patch(new TodoPatch(renamed.getId(), "Indexed giraffe" + word, null), null);
+        repository.delete(deleted.getId());
+
+        assertThat(repository.search(word, 10, 0)).extracting(Todo::getId).containsExactly(kept.getId());
+        assertThat(repository.search("giraffe" + word.substring(0, 10) + "*", 10, 0)).extracting(Todo::getId)
+                .containsExactly(renamed.getId());
+    }
+
+    @Test
+    void search_ranksFlushedAndPendingMatchesTogether() {
+        String word = "okapi" + UUID.randomUUID().toString().replace("-", "");
+        Todo longer = repository.save(new Todo(null, "Ranked " + word + ", flushed", false));
+        ((InMemoryTodoRepository) repository).flush();
+        Todo shorter = repository.save(new Todo(null, "Ranked " + word, false));
+
+        assertThat(repository.search(word, 10, 0)).extracting(Todo::getId)
+                .containsExactly(shorter.getId(), longer.getId());
+        assertThat(repository.search(word, 1, 1)).extracting(Todo::getId).containsExactly(longer.getId());
+    }
+
+    @Test
+    void stats_followWritesAndMatchTheDatabaseAfterFlush() {
+        TodoStats before = repository.stats();
+        // Compared by change, other test contexts write to the same database
+        TodoStats storedBefore = store.stats();
+        Todo saved = repository.save(new Todo(null, "Counted in memory", false));
+        repository.patch(new TodoPatch(saved.getId(), null, true), null);
+        Todo other = repository.save(new Todo(null, "Deleted", true));
+        repository.delete(other.getId());
+
+        assertThat(repository.stats().getTotal()).isEqualTo(before.getTotal() + 1);
+        assertThat(repository.stats().getCompleted()).isEqualTo(before.getCompleted() + 1);
+
+        ((InMemoryTodoRepository) repository).flush();
+        assertThat(store.stats().getTotal()).isEqualTo(storedBefore.getTotal() + 1);
+        assertThat(store.stats().getCompleted()).isEqualTo(storedBefore.getCompleted() + 1);
+    }
+
+    @Test
+    void restart_loadsFlushedStateAndContinuesIds() {
+        Todo saved = repository.save(new Todo(null, "Survives restart", true));
+        ((InMemoryTodoRepository) repository).flush();
+
+        InMemoryTodoRepository restarted = new InMemoryTodoRepository(store, transactionManager, properties);
+
+        assertThat(restarted.findById(saved.getId())).get().extracting(Todo::getDescription).isEqualTo("Survives restart");
+        assertThat(restarted.save(new Todo(null, "Next", false)).getId()).isGreaterThan(saved.getId());
+    }
+}
@@ -0,0 +1,43 @@
+package dev.jleenksystem.todolist.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTermsTest {
+
+    @Test
+    void tokens_foldCaseAndDiacriticsAndSplitOnPunctuation() {
+        assertThat(SearchTerms.tokens("Crème brûlée, x2!")).containsExactly("creme", "brulee", "x2");
+    }
+
+    @Test
+    void matches_requiresEveryWord() {
+        SearchTerms terms = SearchTerms.parse("buy milk");
+
+        assertThat(terms.matches("Buy oat MILK")).isTrue();
+        assertThat(terms.matches("Buy bread")).isFalse();
+    }
+
+    @Test
+    void matches_trailingStarIsAPrefix() {
+        assertThat(SearchTerms.parse("mil*").matches("Buy milk")).isTrue();
+        assertThat(SearchTerms.parse("mil").matches("Buy milk")).isFalse();
+        // A one-letter prefix matches only the word itself, as in the FTS query
+        assertThat(SearchTerms.parse("m*").matches("Buy milk")).isFalse();
+    }
+
+    @Test
+    void matches_punctuatedWordAsAPhrase() {
+        SearchTerms terms = SearchTerms.parse("e-mail");
+
+        assertThat(terms.matches("Answer e-mail today")).isTrue();
+        assertThat(terms.matches("Email or e then mail")).isFalse();
+    }
+
+    @Test
+    void parse_withoutWords_isNull() {
+        assertThat(SearchTerms.parse("  * ")).isNull();
+        assertThat(SearchTerms.parse("--")).isNull();
+    }
+}
@@ -0,0 +1,106 @@
+package dev.jleenksystem.todolist.repository;
+
+import dev.jleenksystem.todolist.config.TodoCacheProperties;
+import dev.jleenksystem.todolist.model.Todo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TodoCacheTest {
+
+    private MeterRegistry registry;
+    private TodoCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setup() {
+        registry = new SimpleMeterRegistry();
+        cache = new TodoCache(new TodoCacheProperties(), registry);
+        loads = new AtomicInteger();
+    }
+
+    private Function<Long, Optional<Todo>> loader(Todo todo) {
+        return id -> {
+            loads.incrementAndGet();
+            return Optional.ofNullable(todo);
+        };
+    }
+
+    @Test
+    void get_secondLookup_isServedFromCache() {
+        cache.get(1L, loader(new Todo(1L, "Hello", false)));
+        Optional<Todo> cached = cache.get(1L, loader(new Todo(1L, "Changed", false)));
+
+        assertThat(cached).get().extracting(Todo::getDescription).isEqualTo("Hello");
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_missingId_isCachedAsEmpty() {
+        assertThat(cache.get(404L, loader(null))).isEmpty();
+        assertThat(cache.get(404L, loader(null))).isEmpty();
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_returnsCopies() {
+        cache.get(1L, loader(new Todo(1L, "Hello", false))).get().setDescription("Mutated by caller");
+
+        assertThat(cache.get(1L, loader(null))).get().extracting(Todo::getDescription).isEqualTo("Hello");
+    }
+
+    @Test
+    void invalidate_forcesReload() {
+        cache.get(1L, loader(new Todo(1L, "Old", false)));
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, loader(new Todo(1L, "New", false)))).get()
+                .extracting(Todo::getDescription).isEqualTo("New");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void get_failedLoad_isNotCached() {
+        assertThatThrownBy(() -> cache.get(1L, id -> {
+            throw new IllegalStateException("database is locked");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get(1L, loader(new Todo(1L, "Hello", false)))).isPresent();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_duringLoad_dropsTheLoadedValue() {
+        // The loader runs outside the map lock, so a write can invalidate the id while it is in flight
+        cache.get(1L, id -> {
+            cache.invalidate(1L);
+            return Optional.of(new Todo(1L, "Stale", false));
+        });
+
+        assertThat(cache.get(1L, loader(new Todo(1L, "Fresh", false)))).get()
+                .extracting(Todo::getDescription).isEqualTo("Fresh");
+    }
+
+    @Test
+    void disabledCache_alwaysLoads() {
+        TodoCacheProperties properties = new TodoCacheProperties();
+        properties.setMaxSize(0);
+        TodoCache disabled = new TodoCache(properties, registry);
+
+        disabled.get(1L, loader(new Todo(1L, "Hello", false)));
+        disabled.get(1L, loader(new Todo(1L, "Hello", false)));
+
+        assertThat(loads).hasValue(2);
+    }
+}
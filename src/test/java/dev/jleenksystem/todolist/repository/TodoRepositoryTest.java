@@ -1,6 +1,10 @@
 package dev.jleenksystem.todolist.repository;
 
 import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoPatch;
+import dev.jleenksystem.todolist.model.TodoStats;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -8,10 +12,14 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @ActiveProfiles("test")
@@ -25,12 +33,146 @@ class TodoRepositoryTest {
     @Autowired
     TodoRepository repository;
 
+    @Autowired
+    TodoCache cache;
+
+    @BeforeEach
+    void setup() {
+        // reset.sql and data.sql bypass the repository
+        cache.invalidateAll();
+    }
+
     @Test
     void findAll_returnsAllRows() {
         List<Todo> todos = repository.findAll();
         assertThat(todos).hasSize(2);
     }
 
+    @Test
+    void findPage_returnsRowsAfterIdInOrder() {
+        List<Todo> firstPage = repository.findPage(TodoFilter.NONE, 0L, 1);
+        assertThat(firstPage).extracting(Todo::getId).containsExactly(1L);
+
+        List<Todo> secondPage = repository.findPage(TodoFilter.NONE, 1L, 10);
+        assertThat(secondPage).extracting(Todo::getId).containsExactly(2L);
+
+        assertThat(repository.findPage(TodoFilter.NONE, 2L, 10)).isEmpty();
+    }
+
+    @Test
+    void findPage_byCompleted_returnsOnlyMatchingRows() {
+        assertThat(repository.findPage(new TodoFilter(true, null, false), null, 10))
+                .extracting(Todo::getDescription).containsExactly("Test Todo 2");
+        assertThat(repository.findPage(new TodoFilter(false, null, false), null, 10))
+                .extracting(Todo::getDescription).containsExactly("Test Todo 1");
+    }
+
+    @Test
+    void findPage_byDescriptionPrefix_matchesRangeOnly() {
+        repository.save(new Todo(null, "Test Todo 10", false));
+        repository.save(new Todo(null, "Test Todo", false));
+        repository.save(new Todo(null, "Tesla", false));
+
+        assertThat(repository.findPage(new TodoFilter(null, "Test Todo 1", false), null, 10))
+                .extracting(Todo::getDescription).containsExactly("Test Todo 1", "Test Todo 10");
+    }
+
+    @Test
+    void findPage_descending_pagesFromNewest() {
+        Todo third = repository.save(new Todo(null, "Test Todo 3", false));
+        TodoFilter newestFirst = new TodoFilter(null, null, true);
+
+        assertThat(repository.findPage(newestFirst, null, 2)).extracting(Todo::getId).containsExactly(third.getId(), 2L);
+        assertThat(repository.findPage(newestFirst, 2L, 2)).extracting(Todo::getId).containsExactly(1L);
+    }
+
+    @Test
+    void filteredQueries_useIndexes() {
+        assertThat(queryPlan("SELECT id FROM todos WHERE completed = 1 AND id > 0 ORDER BY id LIMIT 10"))
+                .contains("idx_todos_completed_id").doesNotContain("TEMP B-TREE");
+        assertThat(queryPlan("SELECT id FROM todos WHERE description >= 'A' AND description < 'B' LIMIT 10"))
+                .contains("idx_todos_description");
+    }
+
+    private String queryPlan(String sql) {
+        return String.join("\n", jdbcTemplate.query("EXPLAIN QUERY PLAN " + sql, (rs, rowNum) -> rs.getString("detail")));
+    }
+
+    @Test
+    void prefixUpperBound_incrementsLastCodePoint() {
+        assertThat(JdbcTodoRepository.prefixUpperBound("abc")).isEqualTo("abd");
+        assertThat(JdbcTodoRepository.prefixUpperBound("a\uD7FF")).isEqualTo("a\uE000");
+        assertThat(JdbcTodoRepository.prefixUpperBound("a" + Character.toString(Character.MAX_CODE_POINT))).isEqualTo("b");
+        assertThat(JdbcTodoRepository.prefixUpperBound(Character.toString(Character.MAX_CODE_POINT))).isNull();
+    }
+
+    @Test
+    void search_ranksCloserMatchesFirst() {
+        Todo exact = repository.save(new Todo(null, "milk", false));
+        Todo partial = repository.save(new Todo(null, "Buy milk and bread and eggs for the weekend", false));
+        repository.save(new Todo(null, "Walk the dog", false));
+
+        assertThat(repository.search("milk", 10, 0)).extracting(Todo::getId)
+                .containsExactly(exact.getId(), partial.getId());
+        assertThat(repository.search("milk", 1, 1)).extracting(Todo::getId).containsExactly(partial.getId());
+    }
+
+    @Test
+    void search_prefixAndDiacritics() {
+        Todo cafe = repository.save(new Todo(null, "Meet at the Café", false));
+
+        assertThat(repository.search("caf*", 10, 0)).extracting(Todo::getId).containsExactly(cafe.getId());
+        assertThat(repository.search("cafe", 10, 0)).extracting(Todo::getId).containsExactly(cafe.getId());
+        assertThat(repository.search("caf", 10, 0)).isEmpty();
+    }
+
+    @Test
+    void search_followsUpdatesAndDeletes() {
+        Todo todo = repository.save(new Todo(null, "Old wording", false));
+        repository.patch(new TodoPatch(todo.getId(), "New wording", null), null);
+
+        assertThat(repository.search("old", 10, 0)).isEmpty();
+        assertThat(repository.search("new", 10, 0)).extracting(Todo::getId).containsExactly(todo.getId());
+
+        repository.delete(todo.getId());
+        assertThat(repository.search("wording", 10, 0)).isEmpty();
+    }
+
+    @Test
+    void matchExpression_quotesEveryWord() {
+        assertThat(JdbcTodoRepository.matchExpression("buy mil*")).isEqualTo("\"buy\" \"mil\"*");
+        assertThat(JdbcTodoRepository.matchExpression("a\"b OR NOT")).isEqualTo("\"a\"\"b\" \"OR\" \"NOT\"");
+        assertThat(JdbcTodoRepository.matchExpression("b* milk")).isEqualTo("\"b\" \"milk\"");
+        assertThat(JdbcTodoRepository.matchExpression("  * ")).isNull();
+    }
+
+    @Test
+    void streamAll_visitsEveryRowInIdOrder() {
+        List<Long> ids = new ArrayList<>();
+        repository.streamAll(todo -> ids.add(todo.getId()));
+
+        assertThat(ids).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void streamAll_readsInChunks_andSeesRowsInsertedWhileStreaming() {
+        // More rows than one chunk, so the stream has to come back for the rest
+        jdbcTemplate.batchUpdate("INSERT INTO todos (description, completed) VALUES ('Chunked', 0)",
+                Collections.nCopies(1200, new Object[0]));
+        List<Long> ids = new ArrayList<>();
+        long[] inserted = new long[1];
+        repository.streamAll(todo -> {
+            if (ids.isEmpty()) {
+                // A single long read would keep its snapshot and never see this row
+                inserted[0] = repository.save(new Todo(null, "Inserted while streaming", false)).getId();
+            }
+            ids.add(todo.getId());
+        });
+
+        assertThat(ids).hasSize(1203).isSorted().doesNotHaveDuplicates();
+        assertThat(ids.get(ids.size() - 1)).isEqualTo(inserted[0]);
+    }
+
     @Test
     void findById_existingId_returnsTodo() {
         Optional<Todo> todo = repository.findById(1L);
@@ -53,6 +195,52 @@ class TodoRepositoryTest {
         assertThat(repository.findById(saved.getId())).isPresent();
     }
 
+    @Test
+    void save_returnsTheIdOfTheRowItInserted() {
+        // A row inserted by someone else first must not be mistaken for ours
+        jdbcTemplate.update("INSERT INTO todos (description, completed) VALUES ('Inserted elsewhere', 0)");
+
+        Todo first = repository.save(new Todo(null, "Returned 1", false));
+        Todo second = repository.save(new Todo(null, "Returned 2", true));
+
+        assertThat(second.getId()).isGreaterThan(first.getId());
+        assertThat(repository.findById(first.getId())).get().extracting(Todo::getDescription).isEqualTo("Returned 1");
+        assertThat(repository.findById(second.getId())).get().extracting(Todo::getDescription).isEqualTo("Returned 2");
+    }
+
+    @Test
+    void saveAll_insertsBatchAndAssignsIds() {
+        List<Todo> saved = repository.saveAll(new ArrayList<>(List.of(
+                new Todo(null, "Batch 1", false),
+                new Todo(null, "Batch 2", true))));
+
+        assertThat(saved).extracting(Todo::getId).containsExactly(3L, 4L);
+        assertThat(repository.findById(4L)).get().extracting(Todo::getDescription).isEqualTo("Batch 2");
+    }
+
+    @Test
+    void patchAll_updatesOnlySuppliedFieldsAndReportsMissing() {
+        List<Long> missing = repository.patchAll(List.of(
+                new TodoPatch(1L, null, true),
+                new TodoPatch(2L, "Renamed", null),
+                new TodoPatch(999L, "Nope", null)));
+
+        assertThat(missing).containsExactly(999L);
+        assertThat(repository.findAllById(List.of(1L, 2L)))
+                .extracting(Todo::getDescription, Todo::isCompleted)
+                .containsExactly(
+                        tuple("Test Todo 1", true),
+                        tuple("Renamed", true));
+    }
+
+    @Test
+    void deleteAll_removesRowsAndReportsMissing() {
+        List<Long> missing = repository.deleteAll(List.of(1L, 999L));
+
+        assertThat(missing).containsExactly(999L);
+        assertThat(repository.findAll()).extracting(Todo::getId).containsExactly(2L);
+    }
+
     @Test
     void update_updatesTodo() {
         Todo update = new Todo(null, "Updated", true);
@@ -65,6 +253,69 @@ class TodoRepositoryTest {
         assertThat(updated.isCompleted()).isTrue();
     }
 
+    @Test
+    void patch_updatesSuppliedFieldsAndBumpsVersion() {
+        Optional<Todo> patched = repository.patch(new TodoPatch(1L, null, true), null);
+
+        assertThat(patched).get().extracting(Todo::getDescription, Todo::isCompleted, Todo::getVersion)
+                .containsExactly("Test Todo 1", true, 1L);
+        assertThat(repository.findById(1L)).get().extracting(Todo::getVersion).isEqualTo(1L);
+    }
+
+    @Test
+    void patch_withStaleVersion_changesNothing() {
+        repository.patch(new TodoPatch(1L, "First", null), Set.of(0L));
+
+        Optional<Todo> stale = repository.patch(new TodoPatch(1L, "Second", null), Set.of(0L));
+
+        assertThat(stale).isEmpty();
+        assertThat(repository.findById(1L)).get().extracting(Todo::getDescription).isEqualTo("First");
+    }
+
+    @Test
+    void patch_withSeveralVersions_appliesWhenAnyMatches() {
+        repository.patch(new TodoPatch(1L, "First", null), null);
+
+        Optional<Todo> patched = repository.patch(new TodoPatch(1L, "Second", null), Set.of(0L, 1L, 7L));
+
+        assertThat(patched).get().extracting(Todo::getDescription, Todo::getVersion).containsExactly("Second", 2L);
+        assertThat(repository.patch(new TodoPatch(1L, "Third", null), Set.of())).isEmpty();
+        assertThat(repository.findById(1L)).get().extracting(Todo::getDescription).isEqualTo("Second");
+    }
+
+    @Test
+    void patch_missingId_returnsEmpty() {
+        assertThat(repository.patch(new TodoPatch(999L, "Nope", null), null)).isEmpty();
+    }
+
+    @Test
+    void changeCount_growsWithEveryWrite() {
+        long before = repository.changeCount();
+
+        Todo saved = repository.save(new Todo(null, "Counted", false));
+        repository.patch(new TodoPatch(saved.getId(), null, true), null);
+        repository.delete(saved.getId());
+
+        assertThat(repository.changeCount()).isEqualTo(before + 3);
+    }
+
+    @Test
+    void stats_followEveryWrite() {
+        assertThat(repository.stats()).extracting(TodoStats::getTotal, TodoStats::getCompleted).containsExactly(2L, 1L);
+
+        Todo saved = repository.save(new Todo(null, "Counted", false));
+        repository.saveAll(List.of(new Todo(null, "Done", true), new Todo(null, "Open", false)));
+        repository.patch(new TodoPatch(saved.getId(), null, true), null);
+        repository.update(2L, new Todo(2L, "Reopened", false));
+        repository.delete(1L);
+
+        TodoStats stats = repository.stats();
+        assertThat(stats.getTotal()).isEqualTo(4);
+        assertThat(stats.getCompleted()).isEqualTo(2);
+        assertThat(stats.getOpen()).isEqualTo(2);
+        assertThat(stats.getTotal()).isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM todos", Long.class));
+    }
+
     @Test
     void delete_removesTodo() {
         int rows = repository.delete(1L);
@@ -0,0 +1,94 @@
+package dev.jleenksystem.todolist.service;
+
+import dev.jleenksystem.todolist.exception.BackupInProgressException;
+import dev.jleenksystem.todolist.model.BackupJob;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        // One page per step with a pause in between, so a backup is still running when the test looks at it
+        "todos.backup.pages-per-step=1",
+        "todos.backup.step-pause=20ms",
+        "todos.backup.directory=" + BackupServiceTest.DIRECTORY,
+        "todos.backup.retain=2"
+})
+@ActiveProfiles("test")
+class BackupServiceTest {
+    static final String DIRECTORY = "target/backup-service-test";
+
+    @Autowired
+    BackupService backupService;
+
+    private BackupJob await(BackupJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while ("running".equals(job.getStatus()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        return job;
+    }
+
+    @Test
+    void backup_reportsProgressAndCompletes() throws Exception {
+        BackupJob job = backupService.backup();
+
+        assertThat(backupService.getJob(job.getId())).containsSame(job);
+        assertThat(backupService.getJobs()).first().isSameAs(job);
+        await(job);
+
+        assertThat(job.getStatus()).isEqualTo("completed");
+        assertThat(job.getPagesTotal()).isPositive();
+        assertThat(job.getPagesCopied()).isEqualTo(job.getPagesTotal());
+        assertThat(job.getProgress()).isEqualTo(100);
+        assertThat(job.getDurationMillis()).isPositive();
+        Path snapshot = Path.of(DIRECTORY, job.getFile());
+        assertThat(snapshot).exists();
+        assertThat(Files.size(snapshot)).isEqualTo(job.getSizeBytes());
+        assertThat(Path.of(DIRECTORY, job.getFile() + ".part")).doesNotExist();
+    }
+
+    @Test
+    void backup_keepsOnlyTheNewestSnapshots() throws Exception {
+        Files.createDirectories(Path.of(DIRECTORY));
+        // Named like snapshots from an earlier run, the higher id is the newer of the two
+        Path oldest = Files.writeString(Path.of(DIRECTORY, "todos-20000101T000000Z-9.db"), "");
+        Path older = Files.writeString(Path.of(DIRECTORY, "todos-20000101T000000Z-10.db"), "");
+        Path unrelated = Files.writeString(Path.of(DIRECTORY, "notes.txt"), "kept");
+
+        BackupJob job = await(backupService.backup());
+
+        assertThat(job.getStatus()).isEqualTo("completed");
+        assertThat(Path.of(DIRECTORY, job.getFile())).exists();
+        assertThat(oldest).doesNotExist();
+        assertThat(unrelated).exists();
+        try (Stream<Path> files = Files.list(Path.of(DIRECTORY))) {
+            assertThat(files.map(file -> file.getFileName().toString()).filter(name -> name.endsWith(".db")))
+                    .hasSize(2);
+        }
+        Files.deleteIfExists(older);
+    }
+
+    // ============================
+    // Negative tests
+    // ============================
+
+    @Test
+    void backup_whileAnotherIsRunning_throwsInProgress() throws Exception {
+        BackupJob job = backupService.backup();
+        try {
+            assertThatThrownBy(() -> backupService.backup()).isInstanceOf(BackupInProgressException.class);
+        } finally {
+            await(job);
+        }
+        assertThat(job.getStatus()).isEqualTo("completed");
+    }
+}
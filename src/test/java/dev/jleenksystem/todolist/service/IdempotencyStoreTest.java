@@ -0,0 +1,182 @@
+package dev.jleenksystem.todolist.service;
+
+import dev.jleenksystem.todolist.config.IdempotencyProperties;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.exception.IdempotencyKeyMismatchException;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.repository.IdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class IdempotencyStoreTest {
+    private static final String CLIENT = "10.0.0.1";
+
+    private IdempotencyKeyRepository keys;
+    private IdempotencyStore store;
+    private AtomicInteger creates;
+
+    @BeforeEach
+    void setup() {
+        keys = mock(IdempotencyKeyRepository.class);
+        when(keys.find(anyString(), anyString(), anyLong())).thenReturn(Optional.empty());
+        store = new IdempotencyStore(keys, new IdempotencyProperties(), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+        creates = new AtomicInteger();
+    }
+
+    private Supplier<Todo> create(String key, Todo request) {
+        return create(CLIENT, key, request);
+    }
+
+    private Supplier<Todo> create(String client, String key, Todo request) {
+        return () -> store.saveWithKey(client, key, () -> {
+            creates.incrementAndGet();
+            return new Todo(10L, request.getDescription(), request.isCompleted());
+        });
+    }
+
+    @Test
+    void create_newKey_createsAndStoresTheKey() {
+        Todo request = new Todo(null, "New", false);
+
+        IdempotentResult<Todo> result = store.create(CLIENT, "key-1", request, create("key-1", request));
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.value().getId()).isEqualTo(10L);
+        verify(keys).save(eq(CLIENT), eq("key-1"), any(Todo.class), anyLong());
+    }
+
+    @Test
+    void create_retry_replaysFromMemoryWithoutWriting() {
+        Todo request = new Todo(null, "New", false);
+        store.create(CLIENT, "key-1", request, create("key-1", request));
+
+        IdempotentResult<Todo> retry = store.create(CLIENT, "key-1", new Todo(null, "New", false), create("key-1", request));
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.value().getId()).isEqualTo(10L);
+        assertThat(creates).hasValue(1);
+        verify(keys, times(1)).find(eq(CLIENT), eq("key-1"), anyLong());
+    }
+
+    @Test
+    void create_sameKeyFromAnotherClient_createsItsOwnTodo() {
+        Todo request = new Todo(null, "New", false);
+        store.create(CLIENT, "key-1", request, create("key-1", request));
+
+        IdempotentResult<Todo> other = store.create("10.0.0.2", "key-1", request, create("10.0.0.2", "key-1", request));
+
+        assertThat(other.replayed()).isFalse();
+        assertThat(creates).hasValue(2);
+        verify(keys).save(eq("10.0.0.2"), eq("key-1"), any(Todo.class), anyLong());
+    }
+
+    @Test
+    void create_keyOnlyInSqlite_replaysTheStoredTodo() {
+        when(keys.find(eq(CLIENT), eq("key-1"), anyLong())).thenReturn(Optional.of(new Todo(7L, "New", true, 0)));
+
+        IdempotentResult<Todo> result = store.create(CLIENT, "key-1", new Todo(null, "New", true),
+                create("key-1", new Todo(null, "New", true)));
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.value().getId()).isEqualTo(7L);
+        assertThat(creates).hasValue(0);
+    }
+
+    @Test
+    void create_concurrentRequestsWithOneKey_createOnce() throws Exception {
+        Todo request = new Todo(null, "New", false);
+        CountDownLatch creating = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<Todo> slowCreate = () -> {
+            creating.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return create("key-1", request).get();
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotentResult<Todo>> first = executor.submit(() -> store.create(CLIENT, "key-1", request, slowCreate));
+            assertThat(creating.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<IdempotentResult<Todo>> second = executor.submit(() -> store.create(CLIENT, "key-1", request, slowCreate));
+            release.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+            assertThat(second.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+            assertThat(creates).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void purge_deletesKeysOlderThanTheTtl() {
+        long ttl = new IdempotencyProperties().getTtl().toMillis();
+        long before = System.currentTimeMillis();
+
+        store.purge();
+
+        long after = System.currentTimeMillis();
+        verify(keys).purge(longThat(cutoff -> cutoff >= before - ttl && cutoff <= after - ttl));
+    }
+
+    // ============================
+    // Negative tests
+    // ============================
+
+    @Test
+    void create_sameKeyOtherRequest_throwsMismatch() {
+        Todo request = new Todo(null, "New", false);
+        store.create(CLIENT, "key-1", request, create("key-1", request));
+
+        Todo other = new Todo(null, "Other", false);
+        assertThatThrownBy(() -> store.create(CLIENT, "key-1", other, create("key-1", other)))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    void create_failedCreate_isRetried() {
+        Todo request = new Todo(null, "New", false);
+        assertThatThrownBy(() -> store.create(CLIENT, "key-1", request, () -> {
+            throw new IllegalStateException("database is locked");
+        })).isInstanceOf(IllegalStateException.class);
+
+        IdempotentResult<Todo> retry = store.create(CLIENT, "key-1", request, create("key-1", request));
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(creates).hasValue(1);
+    }
+
+    @Test
+    void create_blankOrLongKey_throwsBadRequest() {
+        Todo request = new Todo(null, "New", false);
+
+        assertThatThrownBy(() -> store.create(CLIENT, " ", request, create(" ", request)))
+                .isInstanceOf(BadRequestException.class);
+        String longKey = "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1);
+        assertThatThrownBy(() -> store.create(CLIENT, longKey, request, create(longKey, request)))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(creates).hasValue(0);
+    }
+}
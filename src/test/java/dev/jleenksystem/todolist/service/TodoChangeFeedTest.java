@@ -0,0 +1,142 @@
+package dev.jleenksystem.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jleenksystem.todolist.config.ChangeFeedProperties;
+import dev.jleenksystem.todolist.dto.TodoChangePage;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.exception.ChangesExpiredException;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoChange;
+import dev.jleenksystem.todolist.repository.TodoChangeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TodoChangeFeedTest {
+
+    private TodoChangeRepository changes;
+    private ChangeFeedProperties properties;
+    private SimpleMeterRegistry registry;
+    private TodoChangeFeed feed;
+
+    @BeforeEach
+    void setup() {
+        changes = mock(TodoChangeRepository.class);
+        properties = new ChangeFeedProperties();
+        registry = new SimpleMeterRegistry();
+        feed = new TodoChangeFeed(changes, properties, new ObjectMapper(), registry);
+    }
+
+    private static TodoChange change(long seq) {
+        return new TodoChange(seq, seq, TodoChange.Type.CREATED, new Todo(seq, "Todo " + seq, false, 0));
+    }
+
+    @Test
+    void getChanges_withoutSince_returnsCurrentPositionOnly() {
+        when(changes.lastSeq()).thenReturn(42L);
+
+        TodoChangePage page = feed.getChanges(null, 10);
+
+        assertThat(page.getChanges()).isEmpty();
+        assertThat(page.getLastSeq()).isEqualTo(42L);
+        verify(changes, never()).findAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    void getChanges_returnsChangesAfterSinceAndTheirLastSeq() {
+        when(changes.lastSeq()).thenReturn(12L);
+        when(changes.firstSeq()).thenReturn(1L);
+        when(changes.findAfter(10L, 50)).thenReturn(List.of(change(11), new TodoChange(12, 11, TodoChange.Type.DELETED, null)));
+
+        TodoChangePage page = feed.getChanges(10L, 50);
+
+        assertThat(page.getChanges()).extracting("seq", "id", "type").containsExactly(
+                tuple(11L, 11L, "created"), tuple(12L, 11L, "deleted"));
+        assertThat(page.getChanges().get(1).getTodo()).isNull();
+        assertThat(page.getLastSeq()).isEqualTo(12L);
+    }
+
+    @Test
+    void getChanges_upToDate_keepsSince() {
+        when(changes.lastSeq()).thenReturn(12L);
+        when(changes.firstSeq()).thenReturn(1L);
+
+        assertThat(feed.getChanges(12L, 50).getLastSeq()).isEqualTo(12L);
+    }
+
+    @Test
+    void poll_withoutSubscribers_movesOnlyOverChangesItRead() {
+        // Changes up to 100 are logged, but only 1 and 2 are visible to the poller's read
+        when(changes.lastSeq()).thenReturn(100L);
+        when(changes.findAfter(eq(0L), anyInt())).thenReturn(List.of(change(1), change(2)));
+
+        feed.poll();
+        feed.poll();
+
+        // Changes after 2 are still read on the next poll, for subscribers registered meanwhile
+        verify(changes).findAfter(eq(2L), anyInt());
+    }
+
+    // ============================
+    // Negative tests
+    // ============================
+
+    @Test
+    void getChanges_beforePurgedChanges_isExpired() {
+        when(changes.lastSeq()).thenReturn(500L);
+        when(changes.firstSeq()).thenReturn(100L);
+
+        assertThatThrownBy(() -> feed.getChanges(98L, 10)).isInstanceOf(ChangesExpiredException.class);
+        // The oldest retained change directly follows, nothing was missed
+        assertThatCode(() -> feed.getChanges(99L, 10)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void getChanges_aheadOfTheLog_isExpired() {
+        when(changes.lastSeq()).thenReturn(5L);
+
+        assertThatThrownBy(() -> feed.getChanges(6L, 10)).isInstanceOf(ChangesExpiredException.class);
+    }
+
+    @Test
+    void getChanges_negativeSince_throwsBadRequest() {
+        assertThatThrownBy(() -> feed.getChanges(-1L, 10)).isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void poll_slowSubscriber_isDroppedWithoutBlocking() throws Exception {
+        properties.setSubscriberBuffer(2);
+        when(changes.lastSeq()).thenReturn(10L);
+        when(changes.firstSeq()).thenReturn(1L);
+
+        // The subscriber is stuck catching up while the poller broadcasts
+        CountDownLatch catchingUp = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(changes.findAfter(eq(3L), anyInt())).thenAnswer(invocation -> {
+            catchingUp.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        when(changes.findAfter(eq(0L), anyInt()))
+                .thenReturn(LongStream.rangeClosed(6, 10).mapToObj(TodoChangeFeedTest::change).toList());
+
+        feed.subscribe(3L);
+        assertThat(catchingUp.await(5, TimeUnit.SECONDS)).isTrue();
+
+        feed.poll();
+
+        assertThat(feed.subscriberCount()).isZero();
+        assertThat(registry.get("todos.changes.dropped").counter().count()).isEqualTo(1.0);
+        release.countDown();
+    }
+}
@@ -0,0 +1,74 @@
+package dev.jleenksystem.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TodoExportServiceTest {
+
+    private TodoRepository repo;
+    private TodoExportService service;
+
+    @BeforeEach
+    void setup() {
+        repo = mock(TodoRepository.class);
+        service = new TodoExportService(repo, new ObjectMapper());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeNdjson_writesOneObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Todo> action = invocation.getArgument(0);
+            action.accept(new Todo(1L, "Test 1", false));
+            action.accept(new Todo(2L, "Say \"hi\"", true));
+            return null;
+        }).when(repo).streamAll(any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeNdjson(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "{\"id\":1,\"description\":\"Test 1\",\"completed\":false}\n"
+                        + "{\"id\":2,\"description\":\"Say \\\"hi\\\"\",\"completed\":true}\n");
+    }
+
+    @Test
+    void writeNdjson_emptyTable_writesNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeNdjson(out);
+
+        assertThat(out.size()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writeCsv_writesHeaderAndQuotesWhereNeeded() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Todo> action = invocation.getArgument(0);
+            action.accept(new Todo(1L, "Plain", false));
+            action.accept(new Todo(2L, "Milk, eggs and \"bread\"", true));
+            action.accept(new Todo(3L, "Two\nlines", false));
+            return null;
+        }).when(repo).streamAll(any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeCsv(out);
+
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "id,description,completed\n"
+                        + "1,Plain,false\n"
+                        + "2,\"Milk, eggs and \"\"bread\"\"\",true\n"
+                        + "3,\"Two\nlines\",false\n");
+    }
+}
@@ -0,0 +1,171 @@
+package dev.jleenksystem.todolist.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.jleenksystem.todolist.dto.TodoImportReport;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class TodoImportServiceTest {
+
+    private TodoRepository repo;
+    private SimpleMeterRegistry registry;
+    private TodoImportService service;
+
+    // Copies of every chunk handed to saveAll, in order
+    private final List<List<Todo>> chunks = new ArrayList<>();
+
+    @BeforeEach
+    void setup() {
+        repo = mock(TodoRepository.class);
+        when(repo.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Todo> chunk = invocation.getArgument(0);
+            chunks.add(List.copyOf(chunk));
+            return chunk;
+        });
+        registry = new SimpleMeterRegistry();
+        service = new TodoImportService(repo, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 64, registry);
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importNdjson_insertsValidRowsInChunks() throws Exception {
+        TodoImportReport report = service.importNdjson(body("""
+                {"description":"A","completed":true}
+                {"id":99,"description":"B"}
+
+                {"description":"C","completed":false}
+                """));
+
+        assertThat(report.getIngested()).isEqualTo(3);
+        assertThat(report.getRejected()).isZero();
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0)).extracting(Todo::getId, Todo::getDescription, Todo::isCompleted)
+                .containsExactly(tuple(null, "A", true), tuple(null, "B", false));
+        assertThat(chunks.get(1)).extracting(Todo::getDescription).containsExactly("C");
+        assertThat(registry.get("todos.import.rows").tag("outcome", "ingested").counter().count()).isEqualTo(3.0);
+    }
+
+    @Test
+    void importCsv_readsColumnsByNameAndQuotedFields() throws Exception {
+        TodoImportReport report = service.importCsv(body("\uFEFFid,Description,completed\r\n"
+                + "1,Plain,false\r\n"
+                + "2,\"Milk, eggs and \"\"bread\"\"\",true\r\n"
+                + "3,\"Two\nlines\",\n"));
+
+        assertThat(report.getIngested()).isEqualTo(3);
+        assertThat(chunks.stream().flatMap(List::stream).toList())
+                .extracting(Todo::getDescription, Todo::isCompleted)
+                .containsExactly(tuple("Plain", false), tuple("Milk, eggs and \"bread\"", true), tuple("Two\nlines", false));
+    }
+
+    @Test
+    void importCsv_emptyBody_importsNothing() throws Exception {
+        TodoImportReport report = service.importCsv(body(""));
+
+        assertThat(report.getIngested()).isZero();
+        verify(repo, never()).saveAll(anyList());
+    }
+
+    // ============================
+    // Negative tests
+    // ============================
+
+    @Test
+    void importNdjson_invalidRows_areReportedAndSkipped() throws Exception {
+        TodoImportReport report = service.importNdjson(body("""
+                {"description":"Kept"}
+                {"description":" "}
+                {"description":
+                null
+                """));
+
+        assertThat(report.getIngested()).isEqualTo(1);
+        assertThat(report.getRejected()).isEqualTo(3);
+        assertThat(report.getRejections()).extracting(TodoImportReport.Rejection::getLine).containsExactly(2L, 3L, 4L);
+        assertThat(report.getRejections().get(0).getMessage()).isEqualTo("description must not be blank");
+        assertThat(report.getRejections().get(1).getMessage()).startsWith("Malformed JSON");
+    }
+
+    @Test
+    void importCsv_invalidRows_areReportedWithTheirLine() throws Exception {
+        TodoImportReport report = service.importCsv(body("""
+                description,completed
+                "Quoted
+                over two lines",true
+                ,false
+                Maybe,yes
+                Too,many,fields
+                Fine,
+                """));
+
+        assertThat(report.getIngested()).isEqualTo(2);
+        assertThat(report.getRejections()).extracting(TodoImportReport.Rejection::getLine, TodoImportReport.Rejection::getMessage)
+                .containsExactly(
+                        tuple(4L, "description must not be blank"),
+                        tuple(5L, "completed must be true or false"),
+                        tuple(6L, "Expected 2 fields, found 3"));
+    }
+
+    @Test
+    void importNdjson_lineOverMaxLength_isRejectedAndTheNextOneImported() throws Exception {
+        TodoImportReport report = service.importNdjson(body("{\"description\":\"" + "x".repeat(100) + "\"}\r\n"
+                + "{\"description\":\"After\"}\n"));
+
+        assertThat(report.getIngested()).isEqualTo(1);
+        assertThat(chunks.get(0)).extracting(Todo::getDescription).containsExactly("After");
+        assertThat(report.getRejections()).extracting(TodoImportReport.Rejection::getLine, TodoImportReport.Rejection::getMessage)
+                .containsExactly(tuple(1L, "Longer than 64 characters"));
+    }
+
+    @Test
+    void importCsv_recordOverMaxLength_isRejectedAndTheNextOneImported() throws Exception {
+        TodoImportReport report = service.importCsv(body("description,completed\n"
+                + "\"" + "y".repeat(50) + "\n" + "y".repeat(50) + "\",true\n"
+                + "After,false\n"));
+
+        assertThat(report.getIngested()).isEqualTo(1);
+        assertThat(chunks.get(0)).extracting(Todo::getDescription).containsExactly("After");
+        assertThat(report.getRejections()).extracting(TodoImportReport.Rejection::getLine, TodoImportReport.Rejection::getMessage)
+                .containsExactly(tuple(2L, "Longer than 64 characters"));
+    }
+
+    @Test
+    void importCsv_unterminatedQuote_isRejectedWithoutBufferingTheRest() throws Exception {
+        TodoImportReport report = service.importCsv(body("description\nKept\n\"Never closed\n"
+                + "Swallowed\n".repeat(20)));
+
+        assertThat(report.getIngested()).isEqualTo(1);
+        assertThat(report.getRejections()).extracting(TodoImportReport.Rejection::getLine).containsExactly(3L);
+    }
+
+    @Test
+    void importCsv_headerOverMaxLength_throwsBadRequest() {
+        assertThatThrownBy(() -> service.importCsv(body("description," + "z".repeat(100) + "\nA,b\n")))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void importCsv_withoutDescriptionColumn_throwsBadRequest() {
+        assertThatThrownBy(() -> service.importCsv(body("title,completed\nA,true\n")))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
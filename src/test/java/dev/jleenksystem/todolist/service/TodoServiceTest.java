@@ -1,30 +1,49 @@
 package dev.jleenksystem.todolist.service;
 
+import dev.jleenksystem.todolist.config.WriteQueueProperties;
 import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.dto.TodoPage;
+import dev.jleenksystem.todolist.exception.BadRequestException;
+import dev.jleenksystem.todolist.exception.TodoNotFoundException;
+import dev.jleenksystem.todolist.exception.TodoVersionMismatchException;
 import dev.jleenksystem.todolist.model.Todo;
+import dev.jleenksystem.todolist.model.TodoFilter;
+import dev.jleenksystem.todolist.model.TodoPatch;
 import dev.jleenksystem.todolist.repository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class TodoServiceTest {
 
     private TodoRepository repo;
+    private IdempotencyStore idempotency;
     private TodoService service;
 
     @BeforeEach
     void setup() {
         repo = mock(TodoRepository.class);
-        service = new TodoService(repo);
+        // The write queue is disabled by default, so mutations run on the test thread
+        TodoWriteQueue writes = new TodoWriteQueue(new WriteQueueProperties(), mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry());
+        idempotency = mock(IdempotencyStore.class);
+        service = new TodoService(repo, writes, idempotency);
     }
 
     @Test
@@ -33,12 +52,108 @@ class TodoServiceTest {
                 new Todo(1L, "Test 1", false),
                 new Todo(2L, "Test 2", true));
 
-        when(repo.findAll()).thenReturn(mockList);
+        when(repo.findPage(TodoFilter.NONE, null, 1001)).thenReturn(mockList);
 
-        List<TodoDto> result = service.getAll();
+        TodoPage result = service.getAll();
 
-        assertThat(result).hasSize(2);
-        verify(repo).findAll();
+        assertThat(result.getItems()).hasSize(2);
+        assertThat(result.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getAllTodos_overMaxSize_returnsCursorForTheRest() {
+        ReflectionTestUtils.setField(service, "maxListSize", 2);
+        when(repo.findPage(TodoFilter.NONE, null, 3)).thenReturn(Arrays.asList(
+                new Todo(1L, "Test 1", false),
+                new Todo(2L, "Test 2", true),
+                new Todo(3L, "Test 3", false)));
+
+        TodoPage result = service.getAll();
+
+        assertThat(result.getItems()).extracting(TodoDto::getId).containsExactly(1L, 2L);
+        assertThat(result.getNextCursor()).isEqualTo(TodoCursor.encode(2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void create_withIdempotencyKey_savesTheKeyWithTheTodo() {
+        when(idempotency.create(eq("10.0.0.1"), eq("key-1"), any(Todo.class), any())).thenAnswer(invocation ->
+                new IdempotentResult<>(invocation.<Supplier<Todo>>getArgument(3).get(), false));
+        when(idempotency.saveWithKey(eq("10.0.0.1"), eq("key-1"), any())).thenAnswer(invocation ->
+                invocation.<Supplier<Todo>>getArgument(2).get());
+        when(repo.save(any(Todo.class))).thenAnswer(invocation -> {
+            Todo todo = invocation.getArgument(0);
+            todo.setId(7L);
+            return todo;
+        });
+
+        IdempotentResult<TodoDto> result = service.create(new TodoDto(null, "New", false), "10.0.0.1", "key-1");
+
+        assertThat(result.replayed()).isFalse();
+        assertThat(result.value().getId()).isEqualTo(7L);
+        verify(idempotency).saveWithKey(eq("10.0.0.1"), eq("key-1"), any());
+    }
+
+    @Test
+    void getPage_withMoreRows_returnsNextCursor() {
+        when(repo.findPage(TodoFilter.NONE, 0L, 3)).thenReturn(Arrays.asList(
+                new Todo(1L, "Test 1", false),
+                new Todo(2L, "Test 2", true),
+                new Todo(3L, "Test 3", false)));
+
+        TodoPage page = service.getPage(TodoFilter.NONE, 0L, 2);
+
+        assertThat(page.getItems()).extracting(TodoDto::getId).containsExactly(1L, 2L);
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(TodoCursor.decode(page.getNextCursor())).isEqualTo(2L);
+    }
+
+    @Test
+    void getPage_lastPage_hasNoCursor() {
+        when(repo.findPage(TodoFilter.NONE, 2L, 3)).thenReturn(List.of(new Todo(3L, "Test 3", false)));
+
+        TodoPage page = service.getPage(TodoFilter.NONE, 2L, 2);
+
+        assertThat(page.getItems()).hasSize(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void getPage_limitAboveMaximum_isClamped() {
+        when(repo.findPage(TodoFilter.NONE, 0L, TodoService.MAX_PAGE_SIZE + 1)).thenReturn(List.of());
+
+        service.getPage(TodoFilter.NONE, 0L, 100_000);
+
+        verify(repo).findPage(TodoFilter.NONE, 0L, TodoService.MAX_PAGE_SIZE + 1);
+    }
+
+    @Test
+    void getPage_descending_cursorPointsAtLastRowOfPage() {
+        TodoFilter newestOpen = new TodoFilter(false, null, true);
+        when(repo.findPage(newestOpen, null, 2)).thenReturn(Arrays.asList(
+                new Todo(9L, "Test 9", false),
+                new Todo(7L, "Test 7", false)));
+
+        TodoPage page = service.getPage(newestOpen, null, 1);
+
+        assertThat(page.getItems()).extracting(TodoDto::getId).containsExactly(9L);
+        assertThat(TodoCursor.decode(page.getNextCursor())).isEqualTo(9L);
+    }
+
+    @Test
+    void search_clampsLimitAndMapsResults() {
+        when(repo.search("milk", TodoService.MAX_PAGE_SIZE, 0)).thenReturn(List.of(new Todo(4L, "Buy milk", false)));
+
+        List<TodoDto> result = service.search("milk", 100_000, 0);
+
+        assertThat(result).extracting(TodoDto::getId).containsExactly(4L);
+    }
+
+    @Test
+    void search_blankQuery_throwsBadRequest() {
+        assertThatThrownBy(() -> service.search("  ", 10, 0))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(repo);
     }
 
     @Test
@@ -74,25 +189,98 @@ class TodoServiceTest {
         verify(repo).save(any(Todo.class));
     }
 
+    @Test
+    void createAll_savesBatchAndReturnsIds() {
+        when(repo.saveAll(anyList())).thenReturn(List.of(new Todo(1L, "A", false), new Todo(2L, "B", true)));
+
+        List<TodoDto> result = service.createAll(List.of(new TodoDto(null, "A", false), new TodoDto(null, "B", true)));
+
+        assertThat(result).extracting(TodoDto::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void createAll_withoutCompleted_createsOpenTodos() {
+        when(repo.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TodoDto> result = service.createAll(List.of(new TodoDto(null, "A", null)));
+
+        assertThat(result).extracting(TodoDto::getCompleted).containsExactly(false);
+    }
+
+    @Test
+    void createAll_emptyBatch_throwsBadRequest() {
+        assertThatThrownBy(() -> service.createAll(List.of()))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void patchAll_missingId_throwsNotFound() {
+        when(repo.patchAll(anyList())).thenReturn(List.of(99L));
+
+        assertThatThrownBy(() -> service.patchAll(List.of(new TodoDto(99L, "X", null))))
+                .isInstanceOf(TodoNotFoundException.class)
+                .hasMessage("Todo not found for update: [99]");
+
+        verify(repo, never()).findAllById(anyList());
+    }
+
+    @Test
+    void patchAll_withoutId_throwsBadRequest() {
+        assertThatThrownBy(() -> service.patchAll(List.of(new TodoDto(null, "X", null))))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void deleteAll_missingId_throwsNotFound() {
+        when(repo.deleteAll(List.of(1L, 2L))).thenReturn(List.of(2L));
+
+        assertThatThrownBy(() -> service.deleteAll(List.of(1L, 2L)))
+                .isInstanceOf(TodoNotFoundException.class)
+                .hasMessage("Todo not found for delete: [2]");
+    }
+
     @Test
     void updateTodo_updatesFields() {
-        Todo existing = new Todo(1L, "Old", false);
         TodoDto updateData = new TodoDto(null, "Updated", true);
 
-        when(repo.findById(1L)).thenReturn(Optional.of(existing));
-        when(repo.update(eq(1L), any())).thenReturn(1);
+        when(repo.patch(any(TodoPatch.class), isNull())).thenReturn(Optional.of(new Todo(1L, "Updated", true, 1L)));
 
         TodoDto result = service.patch(1L, updateData);
 
         assertThat(result.getDescription()).isEqualTo("Updated");
         assertThat(result.getCompleted()).isTrue();
+        assertThat(result.getVersion()).isEqualTo(1L);
 
-        ArgumentCaptor<Todo> captor = ArgumentCaptor.forClass(Todo.class);
-        verify(repo).update(eq(1L), captor.capture());
+        ArgumentCaptor<TodoPatch> captor = ArgumentCaptor.forClass(TodoPatch.class);
+        verify(repo).patch(captor.capture(), isNull());
+
+        TodoPatch patchPassed = captor.getValue();
+        assertThat(patchPassed.getId()).isEqualTo(1L);
+        assertThat(patchPassed.getDescription()).isEqualTo("Updated");
+        assertThat(patchPassed.getCompleted()).isTrue();
+
+        // One statement, no read before the write
+        verify(repo, never()).findById(any());
+    }
+
+    @Test
+    void updateTodo_notExisting_throwsNotFound() {
+        when(repo.patch(any(TodoPatch.class), isNull())).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.patch(999L, new TodoDto(null, "Updated", true)))
+                .isInstanceOf(TodoNotFoundException.class)
+                .hasMessage("Todo not found for update");
+    }
+
+    @Test
+    void updateTodo_staleVersion_throwsVersionMismatch() {
+        when(repo.patch(any(TodoPatch.class), eq(Set.of(3L)))).thenReturn(Optional.empty());
+        when(repo.findById(1L)).thenReturn(Optional.of(new Todo(1L, "Changed", false, 4L)));
 
-        Todo updatedPassed = captor.getValue();
-        assertThat(updatedPassed.getDescription()).isEqualTo("Updated");
-        assertThat(updatedPassed.isCompleted()).isTrue();
+        assertThatThrownBy(() -> service.patch(1L, new TodoDto(null, "Updated", true), Set.of(3L)))
+                .isInstanceOf(TodoVersionMismatchException.class);
     }
 
     @Test
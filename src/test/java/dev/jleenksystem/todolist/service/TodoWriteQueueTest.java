@@ -0,0 +1,108 @@
+package dev.jleenksystem.todolist.service;
+
+import dev.jleenksystem.todolist.config.WriteQueueProperties;
+import dev.jleenksystem.todolist.dto.TodoDto;
+import dev.jleenksystem.todolist.exception.TodoNotFoundException;
+import dev.jleenksystem.todolist.repository.TodoRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = {
+        "todos.write-queue.enabled=true",
+        "todos.write-queue.batch-size=64",
+        "todos.write-queue.max-linger=20ms"
+})
+@ActiveProfiles("test")
+class TodoWriteQueueTest {
+
+    @Autowired
+    TodoService service;
+
+    @Autowired
+    TodoRepository repository;
+
+    @Autowired
+    MeterRegistry registry;
+
+    @Test
+    void concurrentCreates_areCommittedTogether() throws Exception {
+        int requests = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        try {
+            List<Callable<TodoDto>> calls = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                TodoDto dto = new TodoDto(null, "Queued " + i, false);
+                calls.add(() -> service.create(dto));
+            }
+
+            for (Future<TodoDto> future : executor.invokeAll(calls)) {
+                TodoDto created = future.get();
+                assertThat(repository.findById(created.getId())).isPresent();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        DistributionSummary batchSizes = registry.get("todos.write.batch.size").summary();
+        assertThat(batchSizes.max()).isGreaterThan(1);
+        assertThat(batchSizes.count()).isLessThan(requests);
+    }
+
+    @Test
+    void failingMutation_isRolledBackAloneAndReportedToItsCaller() {
+        TodoDto created = service.create(new TodoDto(null, "Before", false));
+
+        assertThatThrownBy(() -> service.patch(Long.MAX_VALUE, new TodoDto(null, "Nope", true)))
+                .isInstanceOf(TodoNotFoundException.class);
+
+        TodoDto patched = service.patch(created.getId(), new TodoDto(null, "After", true));
+        assertThat(patched.getDescription()).isEqualTo("After");
+        assertThat(repository.findById(created.getId())).get()
+                .extracting(todo -> todo.getDescription()).isEqualTo("After");
+    }
+
+    @Test
+    void submitsRacingWithStop_allComplete() throws Exception {
+        // Submits land before, during and after the final drain of stop(), none may be left waiting
+        WriteQueueProperties properties = new WriteQueueProperties();
+        properties.setEnabled(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                TodoWriteQueue queue = new TodoWriteQueue(properties, mock(PlatformTransactionManager.class),
+                        new SimpleMeterRegistry());
+                queue.start();
+                List<Future<Integer>> submits = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    int value = i;
+                    submits.add(executor.submit(() -> queue.submit(() -> value)));
+                }
+                queue.stop();
+
+                for (int i = 0; i < submits.size(); i++) {
+                    assertThat(submits.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}